@@ -10,6 +10,9 @@ public class Binairo {
     private Scanner scanner;
     private static final String SAVE_FILE = "binairo_save.txt";
     
+    // Solutions déjà calculées, réutilisées par l'aide et la résolution automatique
+    private final SolutionCache solutionCache = new SolutionCache();
+    
     /**
      * Constructeur
      */
@@ -22,6 +25,16 @@ public class Binairo {
      * Lance le jeu Binairo
      */
     public static void main(String[] args) {
+        // Mode batch sans interface: java Binairo --batch [options] < grilles > solutions
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BinairoBatch.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // Résolution parallèle par cubes: java Binairo --cubes [options] < grilles > solutions
+        if (args.length > 0 && args[0].equals("--cubes")) {
+            CubeSolver.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         Binairo game = new Binairo();
         game.run();
     }
@@ -166,26 +179,12 @@ public class Binairo {
         }
         
         int difficulty = getIntInput("Difficulté (1=Débutant, 2=Intermédiaire, 3=Expert): ");
-        int emptyCells;
-        
-        switch (difficulty) {
-            case 1:
-                emptyCells = (int)(size * size * 0.4); // 40% vides
-                break;
-            case 2:
-                emptyCells = (int)(size * size * 0.5); // 50% vides
-                break;
-            case 3:
-                emptyCells = (int)(size * size * 0.6); // 60% vides
-                break;
-            default:
-                emptyCells = (int)(size * size * 0.5);
-        }
         
         System.out.println("Génération d'une grille résolue...");
         
         // Générer une grille complète valide
-        BinairoPosition solved = generateSolvedGrid(size);
+        Random random = new Random();
+        BinairoPosition solved = BinairoGenerator.generateSolvedGrid(size, random);
         
         if (solved == null) {
             System.out.println("Erreur lors de la génération!");
@@ -193,77 +192,48 @@ public class Binairo {
         }
         
         // Retirer des cellules aléatoirement pour créer le puzzle
-        List<int[]> positions = new ArrayList<>();
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                positions.add(new int[]{i, j});
-            }
-        }
+        currentPosition = BinairoGenerator.createPuzzle(solved, difficulty, random);
         
-        Collections.shuffle(positions);
-        
-        currentPosition = new BinairoPosition(solved);
-        int removed = 0;
-        for (int[] pos : positions) {
-            if (removed >= emptyCells) break;
-            currentPosition.setValue(pos[0], pos[1], -1);
-            removed++;
-        }
+        // La grille complète est une solution du puzzle: inutile de la rechercher plus tard
+        solutionCache.put(currentPosition, solved);
         
         System.out.println("Grille générée avec succès!");
         displayGrid();
     }
     
     /**
-     * Génère une grille complète résolue
-     * Place quelques valeurs aléatoires puis utilise un algorithme de résolution
-     */
-    private BinairoPosition generateSolvedGrid(int size) {
-        BinairoPosition grid = new BinairoPosition(size);
-        Random random = new Random();
-        
-        // Placer quelques valeurs initiales pour accélérer la résolution
-        int initialValues = size / 2;
-        for (int i = 0; i < initialValues; i++) {
-            int row = random.nextInt(size);
-            int col = random.nextInt(size);
-            int value = random.nextInt(2);
-            grid.setValue(row, col, value);
-        }
-        
-        // Essayer Forward Checking d'abord (plus rapide)
-        GameSearch search = new GameSearch(grid);
-        BinairoPosition solution = search.solveForwardChecking();
-        
-        // Si échec, essayer Backtracking
-        if (solution == null || !solution.isSolution()) {
-            search = new GameSearch(grid);
-            solution = search.solveBacktracking();
-        }
-        
-        return solution;
-    }
-    
-    /**
-     * Charge une grille sauvegardée depuis le fichier binairo_save.txt
+     * Charge une grille depuis un fichier (binairo_save.txt par défaut)
+     * Si le fichier contient plusieurs grilles, demande laquelle charger
      */
     private void loadGrid() {
+        String fileName = getStringInput("Fichier (Entrée = " + SAVE_FILE + "): ", SAVE_FILE);
         try {
-            File file = new File(SAVE_FILE);
+            File file = new File(fileName);
             if (!file.exists()) {
                 System.out.println("Aucune grille sauvegardée trouvée!");
                 return;
             }
             
-            StringBuilder content = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    content.append(line).append("\n");
+            int count = BinairoReader.count(file);
+            if (count == 0) {
+                System.out.println("Aucune grille dans " + fileName + "!");
+                return;
+            }
+            
+            int number = 1;
+            if (count > 1) {
+                number = getIntInput("Le fichier contient " + count + " grilles. Numéro de la grille (1-" + count + "): ");
+                if (number < 1 || number > count) {
+                    System.out.println("Numéro invalide!");
+                    return;
                 }
             }
             
-            currentPosition = BinairoPosition.fromSaveString(content.toString());
+            try (BinairoReader reader = new BinairoReader(file)) {
+                currentPosition = reader.skipTo(number - 1);
+                // Une solution enregistrée avec la grille évite de la recalculer
+                solutionCache.put(currentPosition, reader.getSolution());
+            }
             System.out.println("Grille chargée avec succès!");
             displayGrid();
         } catch (IOException e) {
@@ -272,14 +242,22 @@ public class Binairo {
     }
     
     /**
-     * Sauvegarde la grille actuelle dans le fichier binairo_save.txt
+     * Sauvegarde la grille actuelle dans un fichier (binairo_save.txt par défaut)
+     * La grille peut être ajoutée à la fin d'un fichier existant
      */
     private void saveGrid() {
-        try {
-            try (PrintWriter writer = new PrintWriter(new FileWriter(SAVE_FILE))) {
-                writer.print(currentPosition.toSaveString());
-            }
-            System.out.println("Grille sauvegardée dans " + SAVE_FILE);
+        String fileName = getStringInput("Fichier (Entrée = " + SAVE_FILE + "): ", SAVE_FILE);
+        File file = new File(fileName);
+        
+        boolean append = false;
+        if (file.exists() && file.length() > 0) {
+            String response = getStringInput("Le fichier existe. Ajouter la grille à la fin? (o/n): ", "n");
+            append = response.equalsIgnoreCase("o") || response.equalsIgnoreCase("oui");
+        }
+        
+        try (BinairoWriter writer = new BinairoWriter(file, append)) {
+            writer.write(currentPosition);
+            System.out.println("Grille " + (append ? "ajoutée à " : "sauvegardée dans ") + fileName);
         } catch (IOException e) {
             System.out.println("Erreur lors de la sauvegarde: " + e.getMessage());
         }
@@ -449,9 +427,11 @@ public class Binairo {
     private void checkViolations() {
         System.out.println("\n=== VÉRIFICATION DES RÈGLES ===");
         
-        boolean rule1 = currentPosition.checkRule1();
-        boolean rule2 = currentPosition.checkRule2();
-        boolean rule3 = currentPosition.checkRule3();
+        // Une seule passe sur la grille pour les trois règles
+        ViolationMap violations = currentPosition.getViolationMap();
+        boolean rule1 = !violations.violates(ViolationMap.RULE1);
+        boolean rule2 = !violations.violates(ViolationMap.RULE2);
+        boolean rule3 = !violations.violates(ViolationMap.RULE3);
         
         System.out.println("Règle 1 (Max 2 identiques côte à côte): " + 
             (rule1 ? "✓ OK" : "✗ VIOLÉE"));
@@ -463,7 +443,8 @@ public class Binairo {
         if (rule1 && rule2 && rule3) {
             System.out.println("\n✓ Toutes les règles sont respectées!");
         } else {
-            System.out.println("\n✗ Certaines règles sont violées!");
+            System.out.println("\n✗ Certaines règles sont violées! (" + 
+                violations.countViolations() + " case(s) concernée(s))");
         }
     }
     
@@ -503,8 +484,7 @@ public class Binairo {
         
         // Suggestion basée sur LCV (Least Constraining Value)
         // Choisit la valeur qui élimine le moins de possibilités pour les autres cellules
-        GameSearch search = new GameSearch(currentPosition);
-        List<Integer> suggestions = search.selectValueLCV(currentPosition, row, col);
+        List<Integer> suggestions = BinairoSolver.getDefault().orderValues(currentPosition, row, col);
         if (!suggestions.isEmpty()) {
             System.out.println("\n💡 Suggestion: Essayez " + suggestions.get(0) + 
                 " (moins contraignant)");
@@ -524,35 +504,29 @@ public class Binairo {
         System.out.println("4. AC-4");
         
         int choice = getIntInput("Votre choix: ");
+        if (choice < 1 || choice > 4) {
+            System.out.println("Choix invalide!");
+            return;
+        }
         
-        GameSearch search = new GameSearch(currentPosition);
-        BinairoPosition solution = null;
-        
-        long startTime = System.currentTimeMillis();
-        switch (choice) {
-            case 1:
-                solution = search.solveBacktracking();
-                break;
-            case 2:
-                solution = search.solveForwardChecking();
-                break;
-            case 3:
-                solution = search.solveAC3();
-                break;
-            case 4:
-                solution = search.solveAC4();
-                break;
-            default:
-                System.out.println("Choix invalide!");
-                return;
+        BinairoPosition solution = solutionCache.get(currentPosition);
+        if (solution != null) {
+            System.out.println("\n✓ Solution déjà connue (cache), la recherche n'est pas relancée");
+        } else {
+            String[] methods = {GameSearch.BACKTRACKING, GameSearch.FC, GameSearch.AC3, GameSearch.AC4};
+            BinairoSolver.Result result = BinairoSolver.getDefault().solve(currentPosition, methods[choice - 1]);
+            solution = result.getSolution();
+            
+            if (solution != null) {
+                solutionCache.put(currentPosition, solution);
+                System.out.println("\n✓ Solution trouvée!");
+                System.out.println("Méthode: " + result.getMethod());
+                System.out.println("Nœuds explorés: " + result.getNodes());
+                System.out.println("Temps: " + result.getTimeMs() + " ms");
+            }
         }
-        long endTime = System.currentTimeMillis();
         
         if (solution != null && solution.isSolution()) {
-            System.out.println("\n✓ Solution trouvée!");
-            System.out.println("Méthode: " + search.getMethodUsed());
-            System.out.println("Nœuds explorés: " + search.getNodesExplored());
-            System.out.println("Temps: " + (endTime - startTime) + " ms");
             System.out.println("\nSolution:");
             System.out.println(solution);
             
@@ -604,10 +578,7 @@ public class Binairo {
         }
         
         System.out.println("Vérification de la résolubilité...");
-        GameSearch search = new GameSearch(currentPosition);
-        BinairoPosition solution = search.solveForwardChecking();
-        
-        if (solution != null && solution.isSolution()) {
+        if (BinairoSolver.getDefault().solve(currentPosition, GameSearch.FC).isSolved()) {
             System.out.println("✓ La grille est résolvable!");
             return true;
         } else {
@@ -616,6 +587,15 @@ public class Binairo {
         }
     }
     
+    /**
+     * Lit une ligne; retourne defaultValue si la ligne est vide
+     */
+    private String getStringInput(String prompt, String defaultValue) {
+        System.out.print(prompt);
+        String input = scanner.nextLine().trim();
+        return input.isEmpty() ? defaultValue : input;
+    }
+    
     private int getIntInput(String prompt) {
         System.out.print(prompt);
         try {
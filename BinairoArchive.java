@@ -0,0 +1,315 @@
+import java.util.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * Archive binaire de grilles, lue par projection mémoire (MappedByteBuffer)
+ * Permet d'accéder directement à la grille n sans analyser le fichier ni copier
+ * les données dans le tas
+ *
+ * Format (entiers en big-endian):
+ *   En-tête (32 octets): "BNRA", version (int), nombre de grilles (long),
+ *                        position de l'index (long), réservé (long)
+ *   Grilles: taille (1 octet) puis cellules sur 2 bits, 4 par octet, ligne par ligne
+ *            (00 = vide, 01 = 0, 10 = 1, comme GridKey)
+ *   Index: position de chaque grille (long)
+ *
+ * Une archive est limitée à 2 Go (taille maximale d'une projection), soit plusieurs
+ * dizaines de millions de grilles 10x10
+ *
+ * Usage: java BinairoArchive pack <fichier|dossier> <archive>
+ *        java BinairoArchive unpack <archive> <fichier>
+ *        java BinairoArchive info <archive>
+ */
+public class BinairoArchive implements Closeable {
+    private static final int MAGIC = 0x424E5241; // "BNRA"
+    private static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long count;
+    private final int indexOffset;
+
+    private BinairoArchive(FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Ce fichier n'est pas une archive Binairo");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Version d'archive non supportée: " + buffer.getInt(4));
+        }
+        this.count = buffer.getLong(8);
+        long index = buffer.getLong(16);
+        // Sans débordement: count et index viennent d'un en-tête qui peut être corrompu
+        if (index < HEADER_SIZE || index > buffer.capacity()
+                || count < 0 || count > (buffer.capacity() - index) / 8) {
+            throw new IOException("Archive incomplète ou corrompue");
+        }
+        this.indexOffset = (int) index;
+    }
+
+    /**
+     * Ouvre une archive en lecture seule
+     */
+    public static BinairoArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Archive trop grande (> 2 Go)");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            return new BinairoArchive(channel, buffer);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    private int offsetOf(long index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Grille " + index + " sur " + count);
+        }
+        return (int) buffer.getLong(indexOffset + (int) index * 8);
+    }
+
+    /**
+     * Taille de la grille n, lue directement dans l'archive
+     */
+    public int getSize(long index) {
+        return buffer.get(offsetOf(index)) & 0xFF;
+    }
+
+    /**
+     * Valeur (-1, 0 ou 1) d'une cellule de la grille n, lue directement dans l'archive
+     */
+    public int getValue(long index, int row, int col) {
+        int offset = offsetOf(index);
+        int size = buffer.get(offset) & 0xFF;
+        return cellAt(offset + 1, row * size + col);
+    }
+
+    private int cellAt(int cellsOffset, int cell) {
+        int b = buffer.get(cellsOffset + cell / 4);
+        return ((b >>> (6 - 2 * (cell % 4))) & 3) - 1;
+    }
+
+    /**
+     * Reconstruit la grille n
+     */
+    public BinairoPosition get(long index) {
+        int offset = offsetOf(index);
+        int size = buffer.get(offset) & 0xFF;
+        BinairoPosition pos = new BinairoPosition(size);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                pos.setValue(i, j, cellAt(offset + 1, i * size + j));
+            }
+        }
+        return pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Nombre d'octets d'une grille de la taille donnée dans l'archive
+     */
+    static int recordLength(int size) {
+        return 1 + (size * size + 3) / 4;
+    }
+
+    /**
+     * Crée une archive; les grilles sont écrites au fil de l'eau et l'index à la fermeture
+     */
+    public static Writer create(Path path) throws IOException {
+        return new Writer(path);
+    }
+
+    /**
+     * Écriture séquentielle d'une archive
+     */
+    public static class Writer implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer out = ByteBuffer.allocate(1 << 16);
+        private long position = HEADER_SIZE;
+        private long[] offsets = new long[1024];
+        private long count;
+
+        private Writer(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(HEADER_SIZE);
+        }
+
+        public void add(BinairoPosition pos) throws IOException {
+            int size = pos.getSize();
+            if (size > 255) {
+                throw new IOException("Taille de grille non supportée: " + size);
+            }
+            int length = recordLength(size);
+            if (position + length > Integer.MAX_VALUE) {
+                throw new IOException("Archive trop grande (> 2 Go)");
+            }
+            if (out.remaining() < length) {
+                flush();
+            }
+
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[(int) count++] = position;
+
+            out.put((byte) size);
+            int packed = 0;
+            int cell = 0;
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    packed = (packed << 2) | (pos.getValue(i, j) + 1);
+                    cell++;
+                    if (cell % 4 == 0) {
+                        out.put((byte) packed);
+                        packed = 0;
+                    }
+                }
+            }
+            if (cell % 4 != 0) {
+                out.put((byte) (packed << (2 * (4 - cell % 4))));
+            }
+            position += length;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        private void flush() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            out.clear();
+        }
+
+        /**
+         * Écrit l'index puis l'en-tête: une archive n'est lisible qu'après close()
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                if (position + count * 8 > Integer.MAX_VALUE) {
+                    throw new IOException("Archive trop grande (> 2 Go)");
+                }
+                long indexOffset = position;
+                for (int i = 0; i < count; i++) {
+                    if (out.remaining() < 8) {
+                        flush();
+                    }
+                    out.putLong(offsets[i]);
+                }
+                flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putLong(count).putLong(indexOffset).putLong(0);
+                header.flip();
+                channel.position(0);
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            printUsage();
+            return;
+        }
+
+        try {
+            switch (args[0]) {
+                case "pack":
+                    if (args.length < 3) {
+                        printUsage();
+                        return;
+                    }
+                    pack(new File(args[1]), Paths.get(args[2]));
+                    break;
+                case "unpack":
+                    if (args.length < 3) {
+                        printUsage();
+                        return;
+                    }
+                    unpack(Paths.get(args[1]), new File(args[2]));
+                    break;
+                case "info":
+                    info(Paths.get(args[1]));
+                    break;
+                default:
+                    printUsage();
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: java BinairoArchive pack <fichier|dossier> <archive>");
+        System.out.println("       java BinairoArchive unpack <archive> <fichier>");
+        System.out.println("       java BinairoArchive info <archive>");
+    }
+
+    private static void pack(File input, Path output) throws IOException {
+        try (Writer writer = create(output)) {
+            for (File file : BinairoReader.listInputs(input)) {
+                try (BinairoReader reader = new BinairoReader(file)) {
+                    BinairoPosition pos;
+                    while ((pos = reader.next()) != null) {
+                        writer.add(pos);
+                    }
+                }
+            }
+            System.out.println(writer.count() + " grille(s) écrite(s) dans " + output);
+        }
+    }
+
+    private static void unpack(Path input, File output) throws IOException {
+        try (BinairoArchive archive = open(input);
+             BinairoWriter writer = new BinairoWriter(output, false)) {
+            for (long i = 0; i < archive.count(); i++) {
+                writer.write(archive.get(i));
+            }
+            System.out.println(archive.count() + " grille(s) écrite(s) dans " + output);
+        }
+    }
+
+    private static void info(Path input) throws IOException {
+        try (BinairoArchive archive = open(input)) {
+            Map<Integer, Long> sizes = new TreeMap<>();
+            for (long i = 0; i < archive.count(); i++) {
+                sizes.merge(archive.getSize(i), 1L, Long::sum);
+            }
+            System.out.println("Grilles: " + archive.count());
+            for (Map.Entry<Integer, Long> e : sizes.entrySet()) {
+                System.out.println("  " + e.getKey() + "x" + e.getKey() + ": " + e.getValue());
+            }
+        }
+    }
+}
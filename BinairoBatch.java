@@ -0,0 +1,263 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.io.*;
+
+/**
+ * Mode batch sans interface: lit des grilles sur l'entrée standard (une par ligne,
+ * format de toLineString) et écrit les solutions sur la sortie standard
+ *
+ * Les grilles sont résolues par un pool borné de threads. La lecture, la résolution
+ * et l'écriture se font en parallèle; au plus "window" grilles sont en cours à la fois,
+ * ce qui borne la mémoire quelle que soit la taille de l'entrée
+ *
+ * Sortie: une ligne par grille, dans l'ordre de l'entrée. La ligne contient la solution,
+ * ECHEC si aucune solution n'a été trouvée, ou ERREUR suivi du message si la ligne est
+ * invalide. Avec --unordered, les résultats sont écrits dès qu'ils sont prêts, précédés
+ * du numéro de la ligne d'entrée et d'une tabulation
+ *
+ * Usage: java BinairoBatch [--method BT|FC|AC3|AC4|SAC|REG] [--threads N] [--window N] [--unordered]
+ *    ou: java Binairo --batch [options]
+ */
+public class BinairoBatch {
+    public static final String FAILURE = "ECHEC";
+    public static final String ERROR = "ERREUR";
+
+    // Marque la fin de l'entrée pour le thread d'écriture
+    private static final Future<String> END = CompletableFuture.completedFuture(null);
+
+    private String method = GameSearch.FC;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int window;
+    private boolean unordered;
+    private final SolutionCache cache = new SolutionCache(4096);
+
+    private int total;
+    private int solved;
+    private int failed;
+    private int errors;
+
+    public static void main(String[] args) {
+        BinairoBatch batch = new BinairoBatch();
+        try {
+            batch.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur: " + e.getMessage());
+            printUsage();
+            System.exit(1);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in), 1 << 16);
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+            batch.run(in, out);
+        } catch (IOException e) {
+            System.err.println("Erreur: " + e.getMessage());
+            System.exit(1);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+            return;
+        }
+
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        System.err.println(batch.total + " grille(s): " + batch.solved + " résolue(s), "
+            + batch.failed + " échec(s), " + batch.errors + " erreur(s) en " + elapsed + " ms");
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: java BinairoBatch [options] < grilles.txt > solutions.txt");
+        System.err.println("  --method BT|FC|AC3|AC4|SAC|REG  Méthode de résolution (défaut: FC)");
+        System.err.println("  --threads N             Nombre de threads de résolution (défaut: nombre de cœurs)");
+        System.err.println("  --window N              Nombre maximal de grilles en cours (défaut: 4 x threads)");
+        System.err.println("  --unordered             Écrit les résultats dès qu'ils sont prêts, précédés du numéro de ligne");
+    }
+
+    void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--unordered")) {
+                unordered = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Valeur manquante pour " + arg);
+            }
+            String value = args[++i];
+
+            switch (arg) {
+                case "--method":
+                    method = BinairoBenchmark.parseMethod(value);
+                    break;
+                case "--threads":
+                    threads = parsePositive(arg, value);
+                    break;
+                case "--window":
+                    window = parsePositive(arg, value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Option inconnue: " + arg);
+            }
+        }
+    }
+
+    private static int parsePositive(String option, String value) {
+        int n = Integer.parseInt(value);
+        if (n <= 0) {
+            throw new IllegalArgumentException(option + " doit être positif");
+        }
+        return n;
+    }
+
+    /**
+     * Résout toutes les grilles de l'entrée et écrit les résultats
+     * Le thread appelant lit l'entrée; un thread dédié écrit la sortie
+     */
+    public void run(BufferedReader in, Writer out) throws IOException, InterruptedException {
+        int limit = window > 0 ? window : threads * 4;
+        Semaphore inFlight = new Semaphore(limit);
+        BlockingQueue<Future<String>> results = new LinkedBlockingQueue<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "binairo-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // En mode désordonné, chaque tâche terminée est ajoutée à la file des résultats;
+        // sinon les tâches y sont ajoutées dans l'ordre de l'entrée
+        ExecutorCompletionService<String> completion = new ExecutorCompletionService<>(pool, results);
+
+        ResultWriter writer = new ResultWriter(results, inFlight, out);
+        writer.start();
+
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = in.readLine()) != null && writer.failure == null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+
+                inFlight.acquire();
+                final int number = lineNumber;
+                total++;
+                if (unordered) {
+                    completion.submit(() -> number + "\t" + solveLine(trimmed));
+                } else {
+                    results.put(pool.submit(() -> solveLine(trimmed)));
+                }
+            }
+
+            // Tous les jetons sont rendus quand toutes les grilles ont été écrites
+            inFlight.acquire(limit);
+            results.put(END);
+            writer.join();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (writer.failure != null) {
+            throw writer.failure;
+        }
+        out.flush();
+    }
+
+    /**
+     * Résout une grille au format ligne et retourne la ligne de résultat
+     */
+    String solveLine(String line) {
+        BinairoPosition puzzle;
+        try {
+            puzzle = BinairoPosition.fromLineString(line);
+        } catch (IllegalArgumentException e) {
+            count(ERROR);
+            return ERROR + " " + e.getMessage();
+        }
+        BinairoPosition solution = cache.solve(puzzle, method);
+        if (solution == null) {
+            count(FAILURE);
+            return FAILURE;
+        }
+        count(null);
+        return solution.toLineString();
+    }
+
+    private synchronized void count(String outcome) {
+        if (outcome == null) {
+            solved++;
+        } else if (outcome.equals(FAILURE)) {
+            failed++;
+        } else {
+            errors++;
+        }
+    }
+
+    public synchronized int getTotal() {
+        return total;
+    }
+
+    public synchronized int getSolved() {
+        return solved;
+    }
+
+    /**
+     * Écrit les résultats dans l'ordre de la file et rend un jeton par ligne écrite
+     * La sortie est vidée dès qu'aucun résultat n'attend, pour qu'un autre programme
+     * puisse lire les solutions au fil de l'eau
+     */
+    private static class ResultWriter extends Thread {
+        private final BlockingQueue<Future<String>> results;
+        private final Semaphore inFlight;
+        private final Writer out;
+        volatile IOException failure;
+
+        ResultWriter(BlockingQueue<Future<String>> results, Semaphore inFlight, Writer out) {
+            super("binairo-batch-writer");
+            setDaemon(true);
+            this.results = results;
+            this.inFlight = inFlight;
+            this.out = out;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Future<String> result = results.take();
+                    if (result == END) {
+                        return;
+                    }
+                    String line = valueOf(result);
+                    // Après une erreur d'écriture, les résultats sont consommés sans être
+                    // écrits pour ne pas bloquer le lecteur
+                    if (failure == null) {
+                        try {
+                            out.write(line);
+                            out.write('\n');
+                            if (results.isEmpty()) {
+                                out.flush();
+                            }
+                        } catch (IOException e) {
+                            failure = e;
+                        }
+                    }
+                    inFlight.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private static String valueOf(Future<String> result) throws InterruptedException {
+            try {
+                return result.get();
+            } catch (ExecutionException e) {
+                return ERROR + " " + e.getCause();
+            }
+        }
+    }
+}
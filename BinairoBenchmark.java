@@ -0,0 +1,386 @@
+import java.util.*;
+import java.io.*;
+
+/**
+ * Mode benchmark sans interface graphique
+ * Exécute les méthodes de résolution sur un corpus de grilles (fichier ou dossier
+ * au format de toSaveString) et écrit les statistiques en CSV et/ou JSON
+ *
+ * Usage: java BinairoBenchmark <fichier|dossier> [--methods BT,FC,AC3,AC4,SAC,REG]
+ *            [--repeat N] [--warmup N] [--seed S] [--csv fichier] [--json fichier]
+ *            [--metrics fichier]
+ */
+public class BinairoBenchmark {
+    private static final String[] ALL_METHODS = {
+        GameSearch.BACKTRACKING, GameSearch.FC, GameSearch.AC3, GameSearch.AC4, GameSearch.SAC,
+        GameSearch.REGULAR
+    };
+
+    private final List<String> puzzleNames = new ArrayList<>();
+    private final List<BinairoPosition> puzzles = new ArrayList<>();
+    private List<String> methods = new ArrayList<>(Arrays.asList(ALL_METHODS));
+    private int repeat = 5;
+    private int warmup = 1;
+    private long seed = 42;
+    private String csvFile;
+    private String jsonFile;
+    private String metricsFile;
+    private final SearchMetrics metrics = new SearchMetrics();
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            printUsage();
+            return;
+        }
+
+        BinairoBenchmark benchmark = new BinairoBenchmark();
+        try {
+            benchmark.parseArguments(args);
+            benchmark.loadCorpus(new File(args[0]));
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("Erreur: " + e.getMessage());
+            printUsage();
+            System.exit(1);
+            return;
+        }
+
+        if (benchmark.puzzles.isEmpty()) {
+            System.err.println("Aucune grille trouvée dans " + args[0]);
+            System.exit(1);
+            return;
+        }
+
+        List<Measure> measures = benchmark.run();
+        benchmark.printSummary(measures);
+
+        try {
+            if (benchmark.csvFile != null) {
+                benchmark.writeCsv(measures);
+                System.out.println("CSV écrit dans " + benchmark.csvFile);
+            }
+            if (benchmark.jsonFile != null) {
+                benchmark.writeJson(measures);
+                System.out.println("JSON écrit dans " + benchmark.jsonFile);
+            }
+            if (benchmark.metricsFile != null) {
+                try (PrintWriter writer = new PrintWriter(new FileWriter(benchmark.metricsFile))) {
+                    writer.print(benchmark.metrics.toPrometheus());
+                }
+                System.out.println("Métriques écrites dans " + benchmark.metricsFile);
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'écriture des résultats: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: java BinairoBenchmark <fichier|dossier> [options]");
+        System.out.println("  --methods BT,FC,AC3,AC4,SAC,REG  Méthodes à comparer (défaut: toutes)");
+        System.out.println("  --repeat N               Répétitions mesurées par grille et méthode (défaut: 5)");
+        System.out.println("  --warmup N               Répétitions de chauffe non mesurées (défaut: 1)");
+        System.out.println("  --seed S                 Graine de l'ordre d'exécution (défaut: 42)");
+        System.out.println("  --csv fichier            Écrit les résultats par grille et méthode en CSV");
+        System.out.println("  --json fichier           Écrit les résultats détaillés en JSON");
+        System.out.println("  --metrics fichier        Écrit les métriques de recherche au format Prometheus");
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Valeur manquante pour " + arg);
+            }
+            String value = args[++i];
+
+            switch (arg) {
+                case "--methods":
+                    methods = parseMethods(value);
+                    break;
+                case "--repeat":
+                    repeat = parsePositive(arg, value);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--csv":
+                    csvFile = value;
+                    break;
+                case "--json":
+                    jsonFile = value;
+                    break;
+                case "--metrics":
+                    metricsFile = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Option inconnue: " + arg);
+            }
+        }
+    }
+
+    private static int parsePositive(String option, String value) {
+        int n = Integer.parseInt(value);
+        if (n <= 0) {
+            throw new IllegalArgumentException(option + " doit être positif");
+        }
+        return n;
+    }
+
+    /**
+     * Convertit les noms courts (BT, FC, AC3, AC4, SAC, REG) en constantes de GameSearch
+     */
+    static List<String> parseMethods(String value) {
+        List<String> result = new ArrayList<>();
+        for (String name : value.split(",")) {
+            switch (name.trim().toUpperCase()) {
+                case "BT":
+                case "BACKTRACKING":
+                    result.add(GameSearch.BACKTRACKING);
+                    break;
+                case "FC":
+                    result.add(GameSearch.FC);
+                    break;
+                case "AC3":
+                case "AC-3":
+                    result.add(GameSearch.AC3);
+                    break;
+                case "AC4":
+                case "AC-4":
+                    result.add(GameSearch.AC4);
+                    break;
+                case "SAC":
+                    result.add(GameSearch.SAC);
+                    break;
+                case "REG":
+                case "REGULAR":
+                    result.add(GameSearch.REGULAR);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Méthode inconnue: " + name);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Une seule méthode, pour les options qui n'en acceptent pas plusieurs
+     */
+    static String parseMethod(String value) {
+        List<String> methods = parseMethods(value);
+        if (methods.size() != 1) {
+            throw new IllegalArgumentException("Une seule méthode attendue: " + value);
+        }
+        return methods.get(0);
+    }
+
+    /**
+     * Charge toutes les grilles d'un fichier, ou de tous les fichiers .txt d'un dossier
+     * Les fichiers sont triés par nom pour que le corpus soit toujours lu dans le même ordre
+     * Les solutions enregistrées avec les grilles sont ignorées
+     */
+    private void loadCorpus(File input) throws IOException {
+        for (File file : BinairoReader.listInputs(input)) {
+            try (BinairoReader reader = new BinairoReader(file)) {
+                BinairoPosition puzzle;
+                while ((puzzle = reader.next()) != null) {
+                    puzzles.add(puzzle);
+                    puzzleNames.add(file.getName() + "#" + reader.getIndex());
+                }
+            }
+        }
+    }
+
+    /**
+     * Exécute toutes les combinaisons (grille, méthode, répétition)
+     * L'ordre est mélangé avec la graine pour ne pas favoriser une méthode
+     * (JIT, GC), et reste identique d'une exécution à l'autre pour une même graine
+     */
+    private List<Measure> run() {
+        List<Measure> measures = new ArrayList<>();
+        for (int p = 0; p < puzzles.size(); p++) {
+            for (String method : methods) {
+                measures.add(new Measure(p, method, repeat));
+            }
+        }
+
+        System.out.println("=== BENCHMARK BINAIRO ===");
+        System.out.println(puzzles.size() + " grille(s), " + methods.size() + " méthode(s), " +
+            repeat + " répétition(s), graine " + seed + "\n");
+
+        // Chauffe: exécutions non mesurées pour laisser le JIT compiler les méthodes
+        for (int w = 0; w < warmup; w++) {
+            for (Measure m : measures) {
+                GameSearch.runMethod(puzzles.get(m.puzzle), m.method);
+            }
+        }
+
+        List<int[]> runs = new ArrayList<>();
+        for (int i = 0; i < measures.size(); i++) {
+            for (int r = 0; r < repeat; r++) {
+                runs.add(new int[]{i, r});
+            }
+        }
+        Collections.shuffle(runs, new Random(seed));
+
+        int done = 0;
+        for (int[] run : runs) {
+            Measure m = measures.get(run[0]);
+            GameSearch.SearchResult result = GameSearch.runMethod(puzzles.get(m.puzzle), m.method,
+                metricsFile != null ? metrics : null);
+            m.times[run[1]] = result.getTimeNanos();
+            m.nodes[run[1]] = result.getNodes();
+            if (result.isSolved()) {
+                m.solved++;
+            }
+            done++;
+            if (done % 100 == 0) {
+                System.out.println("  " + done + "/" + runs.size() + " exécutions");
+            }
+        }
+
+        return measures;
+    }
+
+    private void printSummary(List<Measure> measures) {
+        System.out.println("\n--- Résumé par méthode (toutes grilles) ---");
+        System.out.printf("%-20s %-10s %-12s %-12s %-12s %-12s %-12s%n",
+            "Méthode", "Résolus", "Méd. (ms)", "p95 (ms)", "p99 (ms)", "Méd. nœuds", "p99 nœuds");
+        System.out.println("------------------------------------------------------------------------------------------");
+
+        for (String method : methods) {
+            MethodSummary s = summarize(measures, method);
+            System.out.printf("%-20s %-10s %-12.3f %-12.3f %-12.3f %-12d %-12d%n",
+                method, s.solved + "/" + s.runs,
+                toMillis(percentile(s.times, 50)), toMillis(percentile(s.times, 95)),
+                toMillis(percentile(s.times, 99)),
+                percentile(s.nodes, 50), percentile(s.nodes, 99));
+        }
+    }
+
+    private void writeCsv(List<Measure> measures) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(csvFile)))) {
+            writer.println("puzzle,size,empty,method,runs,solved," +
+                "time_median_ms,time_p95_ms,time_p99_ms,nodes_median,nodes_p95,nodes_p99");
+            for (Measure m : measures) {
+                BinairoPosition puzzle = puzzles.get(m.puzzle);
+                writer.printf(Locale.ROOT, "%s,%d,%d,%s,%d,%d,%.3f,%.3f,%.3f,%d,%d,%d%n",
+                    puzzleNames.get(m.puzzle), puzzle.getSize(), puzzle.getEmptyCount(), m.method,
+                    repeat, m.solved,
+                    toMillis(percentile(m.times, 50)), toMillis(percentile(m.times, 95)),
+                    toMillis(percentile(m.times, 99)),
+                    percentile(m.nodes, 50), percentile(m.nodes, 95), percentile(m.nodes, 99));
+            }
+        }
+    }
+
+    private void writeJson(List<Measure> measures) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(jsonFile)))) {
+            writer.println("{");
+            writer.printf(Locale.ROOT, "  \"seed\": %d,%n  \"repeat\": %d,%n  \"warmup\": %d,%n",
+                seed, repeat, warmup);
+
+            writer.println("  \"methods\": [");
+            for (int i = 0; i < methods.size(); i++) {
+                String method = methods.get(i);
+                MethodSummary s = summarize(measures, method);
+                writer.printf(Locale.ROOT, "    {\"method\": \"%s\", \"runs\": %d, \"solved\": %d, %s}%s%n",
+                    method, s.runs, s.solved, statsJson(s.times, s.nodes),
+                    i + 1 < methods.size() ? "," : "");
+            }
+            writer.println("  ],");
+
+            writer.println("  \"results\": [");
+            for (int i = 0; i < measures.size(); i++) {
+                Measure m = measures.get(i);
+                BinairoPosition puzzle = puzzles.get(m.puzzle);
+                writer.printf(Locale.ROOT,
+                    "    {\"puzzle\": \"%s\", \"size\": %d, \"empty\": %d, \"method\": \"%s\", " +
+                    "\"runs\": %d, \"solved\": %d, %s}%s%n",
+                    jsonEscape(puzzleNames.get(m.puzzle)), puzzle.getSize(), puzzle.getEmptyCount(), m.method,
+                    repeat, m.solved, statsJson(m.times, m.nodes),
+                    i + 1 < measures.size() ? "," : "");
+            }
+            writer.println("  ]");
+            writer.println("}");
+        }
+    }
+
+    private static String statsJson(long[] times, long[] nodes) {
+        return String.format(Locale.ROOT,
+            "\"time_median_ms\": %.3f, \"time_p95_ms\": %.3f, \"time_p99_ms\": %.3f, " +
+            "\"nodes_median\": %d, \"nodes_p95\": %d, \"nodes_p99\": %d",
+            toMillis(percentile(times, 50)), toMillis(percentile(times, 95)),
+            toMillis(percentile(times, 99)),
+            percentile(nodes, 50), percentile(nodes, 95), percentile(nodes, 99));
+    }
+
+    static String jsonEscape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private MethodSummary summarize(List<Measure> measures, String method) {
+        MethodSummary s = new MethodSummary();
+        List<Measure> selected = new ArrayList<>();
+        for (Measure m : measures) {
+            if (m.method.equals(method)) {
+                selected.add(m);
+                s.solved += m.solved;
+            }
+        }
+        s.runs = selected.size() * repeat;
+        s.times = new long[s.runs];
+        s.nodes = new long[s.runs];
+        int k = 0;
+        for (Measure m : selected) {
+            for (int r = 0; r < repeat; r++) {
+                s.times[k] = m.times[r];
+                s.nodes[k] = m.nodes[r];
+                k++;
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Percentile par la méthode du rang le plus proche
+     */
+    static long percentile(long[] values, int p) {
+        if (values.length == 0) return 0;
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Mesures d'une méthode sur une grille, une case par répétition
+     */
+    private static class Measure {
+        int puzzle;
+        String method;
+        long[] times;
+        long[] nodes;
+        int solved;
+
+        Measure(int puzzle, String method, int repeat) {
+            this.puzzle = puzzle;
+            this.method = method;
+            this.times = new long[repeat];
+            this.nodes = new long[repeat];
+        }
+    }
+
+    private static class MethodSummary {
+        int runs;
+        int solved;
+        long[] times;
+        long[] nodes;
+    }
+}
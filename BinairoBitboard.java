@@ -0,0 +1,150 @@
+import java.util.*;
+
+/**
+ * Validation par bitboards: chaque ligne et chaque colonne est représentée par deux
+ * mots de 64 bits (cases à 0, cases à 1), et les règles sont vérifiées par opérations
+ * bit à bit sur 64 cases à la fois
+ *
+ * Un lot de grilles est chargé dans des tableaux contigus puis les règles 1 et 2 sont
+ * évaluées pour toutes les lignes et colonnes du lot dans une même boucle
+ * Limité aux grilles de 64x64 au plus (une ligne par mot)
+ */
+public final class BinairoBitboard {
+    public static final int MAX_SIZE = 64;
+
+    private BinairoBitboard() {
+    }
+
+    public static boolean supports(int size) {
+        return size > 0 && size <= MAX_SIZE;
+    }
+
+    public static ViolationMap violations(BinairoPosition position) {
+        return violations(Collections.singletonList(position))[0];
+    }
+
+    /**
+     * Masques de violation de chaque grille du lot (toutes de taille <= MAX_SIZE)
+     */
+    public static ViolationMap[] violations(List<BinairoPosition> grids) {
+        int count = grids.size();
+        int[] offsets = new int[count + 1];
+        for (int g = 0; g < count; g++) {
+            int size = grids.get(g).getSize();
+            if (!supports(size)) {
+                throw new IllegalArgumentException("Taille non supportée par les bitboards: " + size);
+            }
+            offsets[g + 1] = offsets[g] + size;
+        }
+
+        // Ligne/colonne k du lot: bit j = case j de la ligne (ou case j de la colonne)
+        int lines = offsets[count];
+        long[] rowZeros = new long[lines];
+        long[] rowOnes = new long[lines];
+        long[] colZeros = new long[lines];
+        long[] colOnes = new long[lines];
+        int[] lineSize = new int[lines];
+        for (int g = 0; g < count; g++) {
+            load(grids.get(g), offsets[g], rowZeros, rowOnes, colZeros, colOnes, lineSize);
+        }
+
+        // Règles 1 et 2 sur toutes les lignes et colonnes du lot
+        long[] rowRule1 = new long[lines];
+        long[] colRule1 = new long[lines];
+        boolean[] rowRule2 = new boolean[lines];
+        boolean[] colRule2 = new boolean[lines];
+        for (int k = 0; k < lines; k++) {
+            rowRule1[k] = tripleCells(rowZeros[k]) | tripleCells(rowOnes[k]);
+            colRule1[k] = tripleCells(colZeros[k]) | tripleCells(colOnes[k]);
+            int maxAllowed = (lineSize[k] + 1) / 2;
+            rowRule2[k] = Long.bitCount(rowZeros[k]) > maxAllowed || Long.bitCount(rowOnes[k]) > maxAllowed;
+            colRule2[k] = Long.bitCount(colZeros[k]) > maxAllowed || Long.bitCount(colOnes[k]) > maxAllowed;
+        }
+
+        ViolationMap[] result = new ViolationMap[count];
+        for (int g = 0; g < count; g++) {
+            int size = offsets[g + 1] - offsets[g];
+            int base = offsets[g];
+            byte[] masks = new byte[size * size];
+
+            for (int i = 0; i < size; i++) {
+                for (long bits = rowRule1[base + i]; bits != 0; bits &= bits - 1) {
+                    masks[i * size + Long.numberOfTrailingZeros(bits)] |= ViolationMap.RULE1;
+                }
+            }
+            for (int j = 0; j < size; j++) {
+                for (long bits = colRule1[base + j]; bits != 0; bits &= bits - 1) {
+                    masks[Long.numberOfTrailingZeros(bits) * size + j] |= ViolationMap.RULE1;
+                }
+            }
+
+            // Règle 2: toutes les cases d'une ligne ou colonne déséquilibrée
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    if (rowRule2[base + i] || colRule2[base + j]) {
+                        masks[i * size + j] |= ViolationMap.RULE2;
+                    }
+                }
+            }
+
+            // Règle 3: toutes les cases d'une ligne ou colonne complète identique à une autre
+            boolean[] rowDuplicate = duplicates(rowZeros, rowOnes, base, size);
+            boolean[] colDuplicate = duplicates(colZeros, colOnes, base, size);
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    if (rowDuplicate[i] || colDuplicate[j]) {
+                        masks[i * size + j] |= ViolationMap.RULE3;
+                    }
+                }
+            }
+
+            result[g] = new ViolationMap(size, masks);
+        }
+        return result;
+    }
+
+    private static void load(BinairoPosition position, int base, long[] rowZeros, long[] rowOnes,
+                             long[] colZeros, long[] colOnes, int[] lineSize) {
+        int size = position.getSize();
+        for (int i = 0; i < size; i++) {
+            lineSize[base + i] = size;
+            for (int j = 0; j < size; j++) {
+                int value = position.getValue(i, j);
+                if (value == 0) {
+                    rowZeros[base + i] |= 1L << j;
+                    colZeros[base + j] |= 1L << i;
+                } else if (value == 1) {
+                    rowOnes[base + i] |= 1L << j;
+                    colOnes[base + j] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Cases au début ou à la fin de trois bits consécutifs (comme checkRule1At,
+     * la case du milieu n'est pas marquée)
+     */
+    static long tripleCells(long bits) {
+        long starts = bits & (bits >>> 1) & (bits >>> 2);
+        return starts | (starts << 2);
+    }
+
+    /**
+     * Lignes complètes identiques à une autre ligne complète de la même grille
+     */
+    private static boolean[] duplicates(long[] zeros, long[] ones, int base, int size) {
+        long full = size == 64 ? -1L : (1L << size) - 1;
+        boolean[] duplicate = new boolean[size];
+        for (int a = 0; a < size; a++) {
+            if ((zeros[base + a] | ones[base + a]) != full) continue;
+            for (int b = a + 1; b < size; b++) {
+                if ((zeros[base + b] | ones[base + b]) == full && ones[base + a] == ones[base + b]) {
+                    duplicate[a] = true;
+                    duplicate[b] = true;
+                }
+            }
+        }
+        return duplicate;
+    }
+}
@@ -0,0 +1,255 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Composant de la grille de jeu, dessiné entièrement en Java2D
+ * Remplace la matrice de JButton: un seul composant et un seul écouteur souris,
+ * quelle que soit la taille de la grille
+ *
+ * La case sous la souris est calculée arithmétiquement à partir des coordonnées,
+ * et les chiffres sont rendus une fois par taille de case dans des images en cache
+ */
+public class BinairoBoardView extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    // Espace maximal entre deux cases, en pixels (réduit pour les grandes grilles)
+    private static final int GAP = 5;
+    private static final int ARC = 10;
+    private static final int MAX_CELL = 68;
+    private static final int MIN_CELL = 14;
+
+    private static final Color BACKGROUND = new Color(10, 25, 47);
+    private static final Color EMPTY_COLOR = new Color(15, 23, 42);
+    private static final Color EMPTY_HOVER_COLOR = new Color(30, 64, 100);
+    private static final Color ZERO_COLOR = new Color(56, 189, 248);
+    private static final Color ONE_COLOR = new Color(251, 146, 60);
+    private static final Color ERROR_COLOR = new Color(248, 113, 113);
+    private static final Color FILLED_TEXT_COLOR = new Color(15, 23, 42);
+    private static final Color ERROR_TEXT_COLOR = new Color(24, 24, 27);
+    private static final Color CELL_BORDER_COLOR = new Color(51, 65, 85);
+    private static final Color HOVER_BORDER_COLOR = new Color(96, 165, 250);
+
+    /**
+     * Clic sur une case de la grille
+     */
+    public interface CellListener {
+        void cellClicked(int row, int col);
+    }
+
+    private BinairoPosition position;
+    private ViolationMap violations;
+    private CellListener listener;
+    private int hoverRow = -1;
+    private int hoverCol = -1;
+
+    // Géométrie calculée à partir de la taille du composant
+    private int cellSize;
+    private int gap;
+    private int originX;
+    private int originY;
+
+    // Chiffres pré-rendus: [valeur][0 = normal, 1 = en violation], pour glyphCellSize
+    private final BufferedImage[][] glyphs = new BufferedImage[2][2];
+    private int glyphCellSize = -1;
+
+    public BinairoBoardView() {
+        setOpaque(true);
+        setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int[] cell = cellAt(e.getX(), e.getY());
+                if (cell != null && listener != null && SwingUtilities.isLeftMouseButton(e)) {
+                    listener.cellClicked(cell[0], cell[1]);
+                }
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                int[] cell = cellAt(e.getX(), e.getY());
+                setHover(cell == null ? -1 : cell[0], cell == null ? -1 : cell[1]);
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHover(-1, -1);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    public void setCellListener(CellListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Change la grille affichée et redessine tout le composant
+     */
+    public void setPosition(BinairoPosition position, ViolationMap violations) {
+        boolean resized = this.position == null || position == null
+                || this.position.getSize() != position.getSize();
+        this.position = position;
+        this.violations = violations;
+        if (resized) {
+            revalidate();
+        }
+        repaint();
+    }
+
+    /**
+     * Met à jour la carte des violations sans redessiner; appeler ensuite repaintCell
+     * pour chaque case modifiée
+     */
+    public void setViolations(ViolationMap violations) {
+        this.violations = violations;
+    }
+
+    /**
+     * Redessine une seule case
+     */
+    public void repaintCell(int row, int col) {
+        layoutCells();
+        repaint(originX + col * (cellSize + gap), originY + row * (cellSize + gap), cellSize, cellSize);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int size = position == null ? 6 : position.getSize();
+        // Cases plus petites pour les grandes grilles, pour que la fenêtre reste raisonnable
+        int cell = Math.max(MIN_CELL, Math.min(MAX_CELL, 640 / size));
+        int side = size * cell + (size - 1) * gapFor(cell);
+        return new Dimension(side, side);
+    }
+
+    /**
+     * Case aux coordonnées données, ou null (hors grille ou dans un espace entre deux cases)
+     */
+    public int[] cellAt(int x, int y) {
+        if (position == null) return null;
+        layoutCells();
+        int step = cellSize + gap;
+        int dx = x - originX;
+        int dy = y - originY;
+        if (dx < 0 || dy < 0) return null;
+        int col = dx / step;
+        int row = dy / step;
+        int size = position.getSize();
+        if (row >= size || col >= size || dx % step >= cellSize || dy % step >= cellSize) {
+            return null;
+        }
+        return new int[]{row, col};
+    }
+
+    private void setHover(int row, int col) {
+        if (row == hoverRow && col == hoverCol) return;
+        int oldRow = hoverRow;
+        int oldCol = hoverCol;
+        hoverRow = row;
+        hoverCol = col;
+        if (oldRow >= 0) repaintCell(oldRow, oldCol);
+        if (row >= 0) repaintCell(row, col);
+    }
+
+    /**
+     * Taille des cases et origine pour centrer la grille dans le composant
+     */
+    private void layoutCells() {
+        int size = position == null ? 1 : position.getSize();
+        int available = Math.min(getWidth(), getHeight());
+        gap = gapFor(available / size);
+        cellSize = Math.max(1, (available - (size - 1) * gap) / size);
+        int side = size * cellSize + (size - 1) * gap;
+        originX = (getWidth() - side) / 2;
+        originY = (getHeight() - side) / 2;
+    }
+
+    private static int gapFor(int cell) {
+        return Math.max(1, Math.min(GAP, cell / 10));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setColor(BACKGROUND);
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            if (position == null) return;
+
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            layoutCells();
+            if (glyphCellSize != cellSize) {
+                buildGlyphs();
+            }
+
+            // Seules les cases qui coupent la zone à redessiner sont dessinées
+            Rectangle clip = g2.getClipBounds();
+            int size = position.getSize();
+            int step = cellSize + gap;
+            int firstRow = 0, lastRow = size - 1, firstCol = 0, lastCol = size - 1;
+            if (clip != null) {
+                firstRow = Math.max(0, (clip.y - originY) / step);
+                lastRow = Math.min(size - 1, (clip.y + clip.height - originY) / step);
+                firstCol = Math.max(0, (clip.x - originX) / step);
+                lastCol = Math.min(size - 1, (clip.x + clip.width - originX) / step);
+            }
+            for (int i = firstRow; i <= lastRow; i++) {
+                for (int j = firstCol; j <= lastCol; j++) {
+                    paintCell(g2, i, j, originX + j * step, originY + i * step);
+                }
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    private void paintCell(Graphics2D g2, int row, int col, int x, int y) {
+        int value = position.getValue(row, col);
+        boolean error = value != -1 && violations != null && violations.hasViolation(row, col);
+        boolean hover = value == -1 && row == hoverRow && col == hoverCol;
+
+        Color fill;
+        if (value == -1) {
+            fill = hover ? EMPTY_HOVER_COLOR : EMPTY_COLOR;
+        } else if (error) {
+            fill = ERROR_COLOR;
+        } else {
+            fill = value == 0 ? ZERO_COLOR : ONE_COLOR;
+        }
+        g2.setColor(fill);
+        g2.fillRoundRect(x, y, cellSize, cellSize, ARC, ARC);
+        g2.setColor(hover ? HOVER_BORDER_COLOR : CELL_BORDER_COLOR);
+        g2.drawRoundRect(x, y, cellSize - 1, cellSize - 1, ARC, ARC);
+
+        if (value != -1) {
+            g2.drawImage(glyphs[value][error ? 1 : 0], x, y, null);
+        }
+    }
+
+    /**
+     * Rend "0" et "1" dans les deux couleurs de texte, à la taille de case courante
+     */
+    private void buildGlyphs() {
+        Font font = new Font("Segoe UI", Font.BOLD, Math.max(8, cellSize * 26 / MAX_CELL));
+        for (int value = 0; value <= 1; value++) {
+            for (int state = 0; state <= 1; state++) {
+                BufferedImage image = new BufferedImage(cellSize, cellSize, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g = image.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                g.setFont(font);
+                g.setColor(state == 1 ? ERROR_TEXT_COLOR : FILLED_TEXT_COLOR);
+                FontMetrics metrics = g.getFontMetrics();
+                String text = String.valueOf(value);
+                int tx = (cellSize - metrics.stringWidth(text)) / 2;
+                int ty = (cellSize - metrics.getHeight()) / 2 + metrics.getAscent();
+                g.drawString(text, tx, ty);
+                g.dispose();
+                glyphs[value][state] = image;
+            }
+        }
+        glyphCellSize = cellSize;
+    }
+}
@@ -0,0 +1,752 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Résolution répartie sur plusieurs processus (éventuellement sur plusieurs machines)
+ *
+ * Le coordinateur lit des grilles sur l'entrée standard (une par ligne, format de
+ * toLineString), découpe l'espace de recherche de chacune en cubes (CubeSolver.Splitter)
+ * et distribue les cubes aux processus de travail connectés en TCP. Chaque processus
+ * de travail ouvre une connexion par thread et résout un cube à la fois par connexion,
+ * avec un moteur GameSearch réutilisé d'un cube à l'autre
+ *
+ * Répartition: un cube est confié à la première connexion libre. Quand il n'y a plus de
+ * cube en attente, une connexion libre reçoit une copie de secours du cube en cours le
+ * plus ancien (au plus MAX_COPIES exécutions d'un même cube): le premier résultat est
+ * gardé et les autres copies sont annulées, ce qui évite d'attendre un processus lent.
+ * Le cube d'une connexion fermée, ou muette depuis READ_TIMEOUT_MS, est remis en attente. En résolution, la première
+ * solution d'une grille annule ses autres cubes; en énumération (--enumerate), les
+ * nombres de solutions des cubes sont additionnés (chaque solution est dans un seul cube)
+ *
+ * Sortie: une ligne par grille, dans l'ordre de l'entrée: la solution ou ECHEC, le nombre
+ * de solutions en énumération (précédé de LIMITE si un cube a atteint une limite), ou
+ * ERREUR suivi du message si la ligne est invalide
+ *
+ * Protocole (une ligne de texte UTF-8 par message):
+ *   travail -> coordinateur: HELLO
+ *                            BUSY id (toutes les HEARTBEAT_MS pendant une recherche)
+ *                            DONE id solutions nœuds limite(0|1) solution(ou -)
+ *   coordinateur -> travail: WORK id énumération(0|1) nœuds-max temps-max-ms grille méthode
+ *                            CANCEL id
+ *                            BYE
+ *
+ * Usage: java BinairoCluster coordinator [--port 7070] [--bind 127.0.0.1] [--method FC]
+ *            [--enumerate] [--cubes N] [--max-nodes N] [--timeout-ms N]
+ *            [--local-workers N] [--worker-threads N] < grilles.txt > resultats.txt
+ *        java BinairoCluster worker [--host 127.0.0.1] [--port 7070] [--threads N]
+ */
+public class BinairoCluster {
+    public static final int DEFAULT_PORT = 7070;
+    public static final int DEFAULT_CUBES = 64;
+    // Nombre maximal d'exécutions simultanées d'un même cube (original et copies de secours)
+    private static final int MAX_COPIES = 2;
+    // Un processus de travail signale qu'il cherche encore; sans message pendant
+    // READ_TIMEOUT_MS, sa connexion est considérée comme perdue
+    static final int HEARTBEAT_MS = 5000;
+    static final int READ_TIMEOUT_MS = 4 * HEARTBEAT_MS;
+
+    private String method = GameSearch.FC;
+    private boolean enumerate;
+    private int cubes = DEFAULT_CUBES;
+    private int maxNodes = Integer.MAX_VALUE;
+    private long maxTimeMs = Long.MAX_VALUE;
+    private String bindAddress = "127.0.0.1";
+    private int port = DEFAULT_PORT;
+    private int localWorkers;
+    private int workerThreads = 1;
+
+    // État de la distribution, protégé par le moniteur de l'instance
+    private final List<Job> jobs = new ArrayList<>();
+    private final Deque<Unit> pending = new ArrayDeque<>();
+    // Cubes en cours, du plus ancien au plus récent
+    private final Set<Unit> inFlight = new LinkedHashSet<>();
+    private int finishedJobs;
+    private boolean stopped;
+    private int units;
+    private int connections;
+    private int connectionsSeen;
+    private int reassigned;
+    private int backups;
+    private long totalNodes;
+    private final List<Process> processes = new ArrayList<>();
+
+    public static void main(String[] args) {
+        if (args.length == 0 || !(args[0].equals("coordinator") || args[0].equals("worker"))) {
+            printUsage();
+            System.exit(1);
+            return;
+        }
+        String[] options = Arrays.copyOfRange(args, 1, args.length);
+        try {
+            if (args[0].equals("worker")) {
+                runWorker(options);
+                return;
+            }
+            BinairoCluster cluster = new BinairoCluster();
+            cluster.parseArguments(options);
+            long start = System.nanoTime();
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+            cluster.run(in, out);
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            System.err.println(cluster.summary() + " en " + elapsed + " ms");
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur: " + e.getMessage());
+            printUsage();
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Erreur: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: java BinairoCluster coordinator [options] < grilles.txt > resultats.txt");
+        System.err.println("  --port N                Port d'écoute (défaut: " + DEFAULT_PORT + ", 0 pour un port libre)");
+        System.err.println("  --bind ADRESSE          Adresse d'écoute (défaut: 127.0.0.1, 0.0.0.0 pour d'autres machines)");
+        System.err.println("  --method BT|FC|AC3|AC4|SAC|REG  Méthode de résolution des cubes (défaut: FC)");
+        System.err.println("  --enumerate             Compte toutes les solutions au lieu d'en chercher une");
+        System.err.println("  --cubes N               Nombre de cubes visé par grille (défaut: " + DEFAULT_CUBES + ")");
+        System.err.println("  --max-nodes N           Nœuds maximum par cube (défaut: illimité)");
+        System.err.println("  --timeout-ms N          Temps maximal par cube (défaut: illimité)");
+        System.err.println("  --local-workers N       Lance N processus de travail sur cette machine");
+        System.err.println("  --worker-threads N      Threads par processus de travail local (défaut: 1)");
+        System.err.println("       java BinairoCluster worker [options]");
+        System.err.println("  --host HÔTE             Adresse du coordinateur (défaut: 127.0.0.1)");
+        System.err.println("  --port N                Port du coordinateur (défaut: " + DEFAULT_PORT + ")");
+        System.err.println("  --threads N             Connexions (et threads de résolution) (défaut: nombre de cœurs)");
+    }
+
+    void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--enumerate")) {
+                enumerate = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Valeur manquante pour " + arg);
+            }
+            String value = args[++i];
+
+            switch (arg) {
+                case "--port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "--bind":
+                    bindAddress = value;
+                    break;
+                case "--method":
+                    method = BinairoBenchmark.parseMethod(value);
+                    break;
+                case "--cubes":
+                    cubes = parsePositive(arg, value);
+                    break;
+                case "--max-nodes":
+                    maxNodes = parsePositive(arg, value);
+                    break;
+                case "--timeout-ms":
+                    maxTimeMs = parsePositive(arg, value);
+                    break;
+                case "--local-workers":
+                    localWorkers = parsePositive(arg, value);
+                    break;
+                case "--worker-threads":
+                    workerThreads = parsePositive(arg, value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Option inconnue: " + arg);
+            }
+        }
+    }
+
+    private static int parsePositive(String option, String value) {
+        int n = Integer.parseInt(value);
+        if (n <= 0) {
+            throw new IllegalArgumentException(option + " doit être positif");
+        }
+        return n;
+    }
+
+    /**
+     * Lit et découpe toutes les grilles, attend que les processus de travail aient tout
+     * résolu, puis écrit les résultats dans l'ordre de l'entrée
+     */
+    public void run(BufferedReader in, Writer out) throws IOException, InterruptedException {
+        readJobs(in);
+
+        ServerSocket server = new ServerSocket();
+        server.bind(new InetSocketAddress(bindAddress, port));
+        List<Thread> handlers = new ArrayList<>();
+        Thread acceptor = new Thread(() -> acceptConnections(server, handlers), "binairo-cluster-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        System.err.println("Coordinateur en écoute sur " + bindAddress + ":" + server.getLocalPort()
+            + " (" + jobs.size() + " grille(s), " + units + " cube(s))");
+
+        try {
+            startLocalWorkers(server.getLocalPort());
+            awaitJobs();
+        } finally {
+            stop();
+            server.close();
+            // Les connexions reçoivent BYE dès qu'il n'y a plus rien à distribuer
+            synchronized (handlers) {
+                for (Thread handler : handlers) {
+                    handler.join(5000);
+                }
+            }
+            for (Process process : processes) {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            }
+        }
+
+        for (Job job : jobs) {
+            out.write(job.result());
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * Crée une tâche par ligne de l'entrée et découpe chaque grille en cubes
+     */
+    private void readJobs(BufferedReader in) throws IOException {
+        Map<Integer, CubeSolver.Splitter> splitters = new HashMap<>();
+        String line;
+        while ((line = in.readLine()) != null) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            Job job = new Job();
+            jobs.add(job);
+            BinairoPosition puzzle;
+            try {
+                puzzle = BinairoPosition.fromLineString(trimmed);
+            } catch (IllegalArgumentException e) {
+                job.error = e.getMessage();
+                finishJob(job);
+                continue;
+            }
+
+            CubeSolver.Splitter splitter = splitters.computeIfAbsent(puzzle.getSize(), CubeSolver.Splitter::new);
+            List<BinairoPosition> split = new ArrayList<>();
+            List<BinairoPosition> solved = new ArrayList<>();
+            splitter.split(puzzle, cubes, enumerate, split, solved);
+            job.solutions = solved.size();
+            if (!enumerate && !solved.isEmpty()) {
+                job.solution = solved.get(0);
+                finishJob(job);
+                continue;
+            }
+            for (BinairoPosition cube : split) {
+                pending.add(new Unit(units++, job, cube.toLineString()));
+            }
+            job.remaining = split.size();
+            if (job.remaining == 0) {
+                finishJob(job);
+            }
+        }
+    }
+
+    private void acceptConnections(ServerSocket server, List<Thread> handlers) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                Thread handler = new Thread(new Connection(socket), "binairo-cluster-" + socket.getPort());
+                handler.setDaemon(true);
+                synchronized (handlers) {
+                    handlers.add(handler);
+                }
+                handler.start();
+            } catch (IOException e) {
+                // Fermeture du serveur: fin de la distribution
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lance les processus de travail locaux avec le même classpath que le coordinateur
+     */
+    private void startLocalWorkers(int actualPort) throws IOException {
+        String java = new File(new File(System.getProperty("java.home"), "bin"), "java").getPath();
+        for (int i = 0; i < localWorkers; i++) {
+            ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                "BinairoCluster", "worker", "--host", "127.0.0.1", "--port", String.valueOf(actualPort),
+                "--threads", String.valueOf(workerThreads));
+            builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+            synchronized (this) {
+                processes.add(builder.start());
+            }
+        }
+    }
+
+    /**
+     * Attend la fin de toutes les tâches
+     * Échoue si les processus de travail locaux se sont tous arrêtés sans autre connexion
+     */
+    private synchronized void awaitJobs() throws IOException, InterruptedException {
+        while (finishedJobs < jobs.size()) {
+            wait(1000);
+            if (!processes.isEmpty() && connections == 0 && finishedJobs < jobs.size()) {
+                boolean alive = false;
+                for (Process process : processes) {
+                    alive |= process.isAlive();
+                }
+                if (!alive) {
+                    throw new IOException("Tous les processus de travail locaux se sont arrêtés");
+                }
+            }
+        }
+    }
+
+    /**
+     * Prochain cube à confier à la connexion: un cube en attente, sinon une copie de
+     * secours du plus ancien cube en cours; bloque si tout est déjà confié
+     * Retourne null quand toutes les tâches sont terminées
+     */
+    private synchronized Unit next(Connection connection) throws InterruptedException {
+        while (true) {
+            if (finishedJobs == jobs.size() || stopped) {
+                return null;
+            }
+            Unit unit;
+            while ((unit = pending.poll()) != null) {
+                if (!unit.done && !unit.job.done) {
+                    return assign(unit, connection);
+                }
+            }
+            Unit backup = null;
+            for (Unit candidate : inFlight) {
+                if (!candidate.runners.contains(connection) && candidate.runners.size() < MAX_COPIES
+                        && (backup == null || candidate.runners.size() < backup.runners.size())) {
+                    backup = candidate;
+                }
+            }
+            if (backup != null) {
+                backups++;
+                return assign(backup, connection);
+            }
+            wait();
+        }
+    }
+
+    private Unit assign(Unit unit, Connection connection) {
+        unit.runners.add(connection);
+        inFlight.add(unit);
+        return unit;
+    }
+
+    /**
+     * Résultat d'un cube: le premier résultat compte, les copies encore en cours sont
+     * annulées, ainsi que les autres cubes de la grille si une solution est trouvée
+     * Les CANCEL sont envoyés hors du moniteur: une écriture bloquée sur une connexion
+     * ne doit pas arrêter la distribution
+     */
+    private void complete(Unit unit, Connection connection, long solutions, long nodes,
+                          boolean limit, BinairoPosition solution) {
+        List<Runnable> cancels = new ArrayList<>();
+        synchronized (this) {
+            totalNodes += nodes;
+            unit.runners.remove(connection);
+            if (unit.done || unit.job.done) {
+                if (unit.runners.isEmpty()) {
+                    inFlight.remove(unit);
+                }
+                return;
+            }
+            unit.done = true;
+            inFlight.remove(unit);
+            for (Connection copy : unit.runners) {
+                cancels.add(() -> copy.cancel(unit.id));
+            }
+
+            Job job = unit.job;
+            job.solutions += solutions;
+            job.limit |= limit;
+            if (!enumerate && solution != null) {
+                job.solution = solution;
+                finishJob(job);
+                for (Unit other : inFlight) {
+                    if (other.job == job) {
+                        for (Connection runner : other.runners) {
+                            cancels.add(() -> runner.cancel(other.id));
+                        }
+                    }
+                }
+            } else if (--job.remaining == 0) {
+                finishJob(job);
+            }
+            notifyAll();
+        }
+        for (Runnable cancel : cancels) {
+            cancel.run();
+        }
+    }
+
+    /**
+     * Connexion perdue: le cube est remis en attente s'il n'a pas d'autre exécution
+     */
+    private synchronized void release(Unit unit, Connection connection) {
+        unit.runners.remove(connection);
+        if (unit.runners.isEmpty()) {
+            inFlight.remove(unit);
+            if (!unit.done && !unit.job.done) {
+                pending.addFirst(unit);
+                reassigned++;
+            }
+        }
+        notifyAll();
+    }
+
+    /**
+     * Fin de la distribution (normale ou sur erreur): les connexions reçoivent BYE
+     */
+    private synchronized void stop() {
+        stopped = true;
+        notifyAll();
+    }
+
+    private synchronized void finishJob(Job job) {
+        job.done = true;
+        finishedJobs++;
+        notifyAll();
+    }
+
+    private synchronized void connectionChanged(int delta) {
+        connections += delta;
+        if (delta > 0) {
+            connectionsSeen++;
+        }
+        notifyAll();
+    }
+
+    synchronized String summary() {
+        return jobs.size() + " grille(s), " + units + " cube(s), " + connectionsSeen + " connexion(s), "
+            + reassigned + " cube(s) réattribué(s), " + backups + " copie(s) de secours, " + totalNodes + " nœuds";
+    }
+
+    /**
+     * Une grille de l'entrée et son résultat
+     */
+    private final class Job {
+        String error;
+        int remaining;
+        long solutions;
+        boolean limit;
+        BinairoPosition solution;
+        boolean done;
+
+        String result() {
+            if (error != null) {
+                return BinairoBatch.ERROR + " " + error;
+            }
+            if (enumerate) {
+                return limit ? "LIMITE " + solutions : String.valueOf(solutions);
+            }
+            return solution != null ? solution.toLineString() : BinairoBatch.FAILURE;
+        }
+    }
+
+    /**
+     * Un cube à résoudre et les connexions qui l'exécutent
+     */
+    private static final class Unit {
+        final int id;
+        final Job job;
+        final String grid;
+        final Set<Connection> runners = new LinkedHashSet<>();
+        boolean done;
+
+        Unit(int id, Job job, String grid) {
+            this.id = id;
+            this.job = job;
+            this.grid = grid;
+        }
+    }
+
+    /**
+     * Connexion d'un thread de travail, côté coordinateur: envoie un cube, attend son
+     * résultat, et recommence
+     */
+    private final class Connection implements Runnable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            socket.setSoTimeout(READ_TIMEOUT_MS);
+        }
+
+        @Override
+        public void run() {
+            Unit current = null;
+            try {
+                if (!"HELLO".equals(in.readLine())) {
+                    return;
+                }
+                connectionChanged(1);
+                try {
+                    while (true) {
+                        current = next(this);
+                        if (current == null) {
+                            send("BYE");
+                            return;
+                        }
+                        send("WORK " + current.id + " " + (enumerate ? 1 : 0) + " " + maxNodes + " " + maxTimeMs
+                            + " " + current.grid + " " + method);
+                        String reply = readReply();
+                        String[] parts = reply.split(" ");
+                        if (parts.length != 6 || !parts[0].equals("DONE") || Integer.parseInt(parts[1]) != current.id) {
+                            throw new IOException("réponse inattendue: " + reply);
+                        }
+                        BinairoPosition solution = parts[5].equals("-") ? null : BinairoPosition.fromLineString(parts[5]);
+                        complete(current, this, Long.parseLong(parts[2]), Long.parseLong(parts[3]),
+                            parts[4].equals("1"), solution);
+                        current = null;
+                    }
+                } finally {
+                    connectionChanged(-1);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Connexion " + socket.getRemoteSocketAddress() + " perdue: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (current != null) {
+                    release(current, this);
+                }
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // déjà fermée
+                }
+            }
+        }
+
+        /**
+         * Prochain message autre que BUSY; SocketTimeoutException si le processus de
+         * travail ne donne plus signe de vie
+         */
+        private String readReply() throws IOException {
+            while (true) {
+                String reply = in.readLine();
+                if (reply == null) {
+                    throw new EOFException("connexion fermée par le processus de travail");
+                }
+                if (!reply.startsWith("BUSY ")) {
+                    return reply;
+                }
+            }
+        }
+
+        synchronized void send(String line) throws IOException {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        }
+
+        void cancel(int id) {
+            try {
+                send("CANCEL " + id);
+            } catch (IOException e) {
+                // La connexion est perdue: son thread remettra le cube en attente
+            }
+        }
+    }
+
+    /**
+     * Processus de travail: une connexion au coordinateur par thread
+     */
+    static void runWorker(String[] args) throws IOException, InterruptedException {
+        String host = "127.0.0.1";
+        int port = DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Valeur manquante pour " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i++]) {
+                case "--host":
+                    host = value;
+                    break;
+                case "--port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    threads = parsePositive("--threads", value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Option inconnue: " + args[i - 1]);
+            }
+        }
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Socket socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            Thread worker = new Thread(new Worker(socket), "binairo-worker-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    /**
+     * Connexion côté processus de travail: lit les messages du coordinateur et résout
+     * les cubes sur un thread séparé, pour pouvoir traiter CANCEL pendant une recherche
+     */
+    private static final class Worker implements Runnable {
+        private final Socket socket;
+        private final Writer out;
+        private final ExecutorService searches = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "binairo-worker-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "binairo-worker-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Cubes reçus et pas encore rapportés, avec leur annulation: un CANCEL qui arrive
+        // après DONE (copie de secours terminée ici) ne laisse aucune trace
+        private final ConcurrentHashMap<Integer, Boolean> assigned = new ConcurrentHashMap<>();
+        // Moteur réutilisé d'un cube à l'autre (grilles de travail)
+        private GameSearch engine;
+        private volatile GameSearch current;
+        private volatile int currentId = -1;
+
+        Worker(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void run() {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                send("HELLO");
+                heartbeat.scheduleAtFixedRate(this::beat, HEARTBEAT_MS, HEARTBEAT_MS, TimeUnit.MILLISECONDS);
+                String line;
+                while ((line = in.readLine()) != null && !line.equals("BYE")) {
+                    if (line.startsWith("CANCEL ")) {
+                        int id = Integer.parseInt(line.substring(7));
+                        assigned.replace(id, Boolean.TRUE);
+                        GameSearch search = current;
+                        if (currentId == id && search != null) {
+                            search.cancel();
+                        }
+                    } else if (line.startsWith("WORK ")) {
+                        // La méthode, qui peut contenir des espaces, termine la ligne
+                        String[] parts = line.split(" ", 7);
+                        int id = Integer.parseInt(parts[1]);
+                        boolean enumeration = parts[2].equals("1");
+                        int maxNodes = Integer.parseInt(parts[3]);
+                        long maxTimeMs = Long.parseLong(parts[4]);
+                        BinairoPosition cube = BinairoPosition.fromLineString(parts[5]);
+                        String method = parts[6];
+                        assigned.put(id, Boolean.FALSE);
+                        searches.execute(() -> solve(id, enumeration, maxNodes, maxTimeMs, cube, method));
+                    } else {
+                        throw new IOException("message inattendu: " + line);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Processus de travail: " + e.getMessage());
+            } finally {
+                heartbeat.shutdownNow();
+                searches.shutdownNow();
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // déjà fermée
+                }
+            }
+        }
+
+        private void beat() {
+            int id = currentId;
+            if (id >= 0) {
+                try {
+                    send("BUSY " + id);
+                } catch (IOException e) {
+                    // Le coordinateur est parti: la boucle de lecture se terminera
+                }
+            }
+        }
+
+        /**
+         * Résout un cube et répond DONE dans tous les cas: une recherche interrompue par
+         * une exception est rapportée comme une limite atteinte
+         */
+        private void solve(int id, boolean enumeration, int maxNodes, long maxTimeMs,
+                           BinairoPosition cube, String method) {
+            long solutions = 0;
+            long nodes = 0;
+            boolean limit = true;
+            BinairoPosition solution = null;
+            try {
+                if (engine == null) {
+                    engine = new GameSearch(cube);
+                } else {
+                    engine.reset(cube);
+                }
+                engine.setLimits(maxNodes, maxTimeMs);
+                current = engine;
+                currentId = id;
+                // CANCEL a pu arriver avant le début de la recherche
+                if (Boolean.TRUE.equals(assigned.get(id))) {
+                    engine.cancel();
+                }
+                if (enumeration) {
+                    solutions = engine.enumerateSolutions(method, null);
+                } else {
+                    solution = engine.solve(method);
+                    if (solution != null && !solution.isSolution()) {
+                        solution = null;
+                    }
+                    solutions = solution == null ? 0 : 1;
+                }
+                nodes = engine.getNodesExplored();
+                limit = engine.isLimitReached();
+            } catch (RuntimeException e) {
+                System.err.println("Cube " + id + " interrompu: " + e);
+                // L'état du moteur est incertain: un nouveau sera créé pour le cube suivant
+                engine = null;
+            } finally {
+                currentId = -1;
+                current = null;
+                assigned.remove(id);
+                try {
+                    send("DONE " + id + " " + solutions + " " + nodes + " " + (limit ? 1 : 0) + " "
+                        + (solution == null ? "-" : solution.toLineString()));
+                } catch (IOException e) {
+                    // Le coordinateur est parti: la boucle de lecture se terminera
+                }
+            }
+        }
+
+        private synchronized void send(String line) throws IOException {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        }
+    }
+}
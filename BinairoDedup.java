@@ -0,0 +1,100 @@
+import java.util.*;
+import java.io.*;
+
+/**
+ * Déduplication d'un corpus de grilles à une symétrie près
+ * Deux grilles sont des doublons si l'une s'obtient de l'autre par miroir,
+ * rotation, transposition et/ou échange des 0 et des 1 (même clé canonique)
+ *
+ * Les grilles sont lues une par une: seuls la clé canonique et le nom des grilles
+ * déjà vues sont gardés en mémoire
+ *
+ * Usage: java BinairoDedup <fichier|dossier> <sortie> [--canonical]
+ */
+public class BinairoDedup {
+    // Nombre de doublons affichés en détail
+    private static final int MAX_REPORTED = 20;
+
+    private final Map<GridKey, String> seen = new HashMap<>();
+    private final boolean writeCanonical;
+    private int total;
+    private int duplicates;
+
+    public BinairoDedup(boolean writeCanonical) {
+        this.writeCanonical = writeCanonical;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: java BinairoDedup <fichier|dossier> <sortie> [--canonical]");
+            System.out.println("  --canonical  Écrit la forme canonique de chaque grille au lieu de la première occurrence");
+            return;
+        }
+
+        boolean canonical = args.length > 2 && args[2].equals("--canonical");
+        BinairoDedup dedup = new BinairoDedup(canonical);
+
+        try (BinairoWriter out = new BinairoWriter(new File(args[1]), false)) {
+            for (File file : BinairoReader.listInputs(new File(args[0]))) {
+                dedup.process(file, out);
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        System.out.println("\n--- Résumé ---");
+        System.out.println("Grilles lues: " + dedup.total);
+        System.out.println("Grilles uniques: " + (dedup.total - dedup.duplicates));
+        System.out.println("Doublons supprimés: " + dedup.duplicates);
+        System.out.println("Résultat écrit dans " + args[1]);
+    }
+
+    /**
+     * Lit toutes les grilles d'un fichier et écrit celles qui n'ont pas encore été vues
+     * Une solution enregistrée avec une grille est conservée avec elle
+     */
+    public void process(File file, BinairoWriter out) throws IOException {
+        try (BinairoReader reader = new BinairoReader(file)) {
+            BinairoPosition puzzle;
+            while ((puzzle = reader.next()) != null) {
+                String name = file.getName() + "#" + reader.getIndex();
+                String original = add(puzzle, reader.getSolution(), name, out);
+                if (original != null && duplicates <= MAX_REPORTED) {
+                    System.out.println("  " + name + " est une symétrie de " + original);
+                }
+            }
+        }
+    }
+
+    /**
+     * Écrit la grille (et sa solution, si non null) si sa forme canonique est nouvelle
+     * Retourne null dans ce cas, sinon le nom de la première grille équivalente
+     */
+    public String add(BinairoPosition puzzle, BinairoPosition solution, String name,
+                      BinairoWriter out) throws IOException {
+        total++;
+        int symmetry = puzzle.canonicalSymmetry();
+        GridKey key = puzzle.toKey(symmetry);
+        String original = seen.putIfAbsent(key, name);
+        if (original != null) {
+            duplicates++;
+            return original;
+        }
+        if (writeCanonical) {
+            out.write(puzzle.transform(symmetry), solution == null ? null : solution.transform(symmetry));
+        } else {
+            out.write(puzzle, solution);
+        }
+        return null;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+}
@@ -5,16 +5,42 @@ import java.awt.event.*;
 import java.io.*;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class BinairoGUI extends JFrame {
     private BinairoPosition currentPosition;
-    private JButton[][] gridButtons;
+    private BinairoBoardView boardView;
     private JLabel statusLabel;
     private JTextArea logArea;
     private JPanel gridPanel;
     private JPanel controlPanel;
     private JPanel topPanel;
     private int gridSize = 6;
+    private final SolutionCache solutionCache = new SolutionCache();
+    private ViolationMap violationMap;
+
+    // Résolution en arrière-plan de la grille courante, relancée à chaque modification,
+    // pour que les indices et la résolution soient servis immédiatement par le cache
+    private final ExecutorService precomputeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "binairo-precompute");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private Future<?> precomputeTask;
+    // Moteur de la résolution en arrière-plan, emprunté à BinairoSolver: la tâche ne le
+    // rend que si elle le retire elle-même d'ici, sans quoi l'EDT a pu l'annuler
+    private final AtomicReference<GameSearch> precomputeSearch = new AtomicReference<>();
+    // Résolution automatique en cours (EDT seulement): la grille affichée est alors
+    // l'affectation partielle du moteur, les clics sur la grille sont ignorés
+    private SwingWorker<BinairoPosition, ?> solveWorker;
+
+    private static final String SAVE_FILE = "binairo_save.txt";
+    // Intervalle minimal entre deux affichages de la progression (environ 30 images/s)
+    private static final long PROGRESS_INTERVAL_MS = 33;
 
     private static final Color MAIN_BG = new Color(10, 25, 47);
     private static final Color PANEL_BG = new Color(15, 32, 60);
@@ -29,13 +55,9 @@ public class BinairoGUI extends JFrame {
     private static final Color NAVBAR_HOVER = new Color(30, 64, 175);
     private static final Color NAVBAR_TEXT = new Color(226, 232, 240);
 
-    private static final Color EMPTY_COLOR = new Color(15, 23, 42);
-    private static final Color ZERO_COLOR = new Color(56, 189, 248);
-    private static final Color ONE_COLOR = new Color(251, 146, 60);
-    private static final Color ERROR_COLOR = new Color(248, 113, 113);
-
     private static final Color BUTTON_CLEAR = new Color(148, 163, 184);
     private static final Color BUTTON_CHECK = new Color(22, 163, 74);
+    private static final Color BUTTON_HINT = new Color(79, 70, 229);
 
     private static final Color ACCENT_COLOR = new Color(129, 140, 248);
     private static final Color SUCCESS_COLOR = new Color(34, 197, 94);
@@ -230,12 +252,15 @@ public class BinairoGUI extends JFrame {
 
         JButton btnClearGrid = createControlButton("Effacer grille", BUTTON_CLEAR);
         JButton btnCheck = createControlButton("Vérifier", BUTTON_CHECK);
+        JButton btnHint = createControlButton("Indice", BUTTON_HINT);
 
         btnClearGrid.addActionListener(e -> clearGrid());
         btnCheck.addActionListener(e -> checkViolations());
+        btnHint.addActionListener(e -> showHint());
 
         controlPanel.add(btnClearGrid);
         controlPanel.add(btnCheck);
+        controlPanel.add(btnHint);
 
         topPanel.add(controlPanel, BorderLayout.SOUTH);
     }
@@ -282,72 +307,29 @@ public class BinairoGUI extends JFrame {
     }
 
     private void createGridPanel() {
-        gridPanel = new JPanel();
-        gridPanel.setLayout(new GridLayout(gridSize, gridSize, 5, 5));
+        gridPanel = new JPanel(new BorderLayout());
         gridPanel.setBackground(MAIN_BG);
         gridPanel.setBorder(BorderFactory.createEmptyBorder(30, 30, 30, 30));
 
-        gridButtons = new JButton[gridSize][gridSize];
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                JButton btn = createGridButton(i, j);
-                gridButtons[i][j] = btn;
-                gridPanel.add(btn);
-            }
+        // Un seul composant dessine toute la grille et reçoit les clics
+        boardView = new BinairoBoardView();
+        boardView.setCellListener(this::handleCellClick);
+        if (currentPosition != null && currentPosition.getSize() == gridSize) {
+            boardView.setPosition(currentPosition, violationMap);
         }
+        gridPanel.add(boardView, BorderLayout.CENTER);
 
         add(gridPanel, BorderLayout.CENTER);
     }
 
-    private JButton createGridButton(int row, int col) {
-        JButton btn = new JButton("");
-        btn.setFont(new Font("Segoe UI", Font.BOLD, 26));
-        btn.setPreferredSize(new Dimension(68, 68));
-        btn.setBackground(EMPTY_COLOR);
-        btn.setForeground(new Color(148, 163, 184));
-        btn.setBorder(new CompoundBorder(
-                new LineBorder(new Color(51, 65, 85), 1, true),
-                new EmptyBorder(6, 6, 6, 6)
-        ));
-        btn.setFocusPainted(false);
-        btn.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        btn.setOpaque(true);
-        btn.setBorderPainted(true);
-
-        btn.addActionListener(e -> handleCellClick(row, col));
-
-        btn.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                if (btn.getBackground().equals(EMPTY_COLOR)) {
-                    btn.setBackground(new Color(30, 64, 100));
-                    btn.setBorder(new CompoundBorder(
-                            new LineBorder(new Color(96, 165, 250), 1, true),
-                            new EmptyBorder(6, 6, 6, 6)
-                    ));
-                }
-            }
-
-            @Override
-            public void mouseExited(MouseEvent e) {
-                if (currentPosition == null || currentPosition.isEmpty(row, col)) {
-                    btn.setBackground(EMPTY_COLOR);
-                    btn.setBorder(new CompoundBorder(
-                            new LineBorder(new Color(51, 65, 85), 1, true),
-                            new EmptyBorder(6, 6, 6, 6)
-                    ));
-                }
-            }
-        });
-
-        return btn;
-    }
-
     private void handleCellClick(int row, int col) {
         if (currentPosition == null) {
             showError("Veuillez d'abord créer ou charger une grille!");
             return;
         }
+        if (solveWorker != null) {
+            return;
+        }
 
         String[] options = {"0", "1", "Effacer"};
         int choice = JOptionPane.showOptionDialog(
@@ -380,10 +362,10 @@ public class BinairoGUI extends JFrame {
         }
 
         currentPosition.setValue(row, col, newValue);
-        updateGridDisplay();
+        updateCellDisplay(row, col);
 
         if (newValue != -1) {
-            List<String> violations = currentPosition.getViolations(row, col);
+            List<String> violations = violationMap.getMessages(row, col);
             if (!violations.isEmpty()) {
                 StringBuilder msg = new StringBuilder("⚠️ Violations détectées:\n");
                 for (String v : violations) {
@@ -397,7 +379,7 @@ public class BinairoGUI extends JFrame {
             log("Cellule (" + row + ", " + col + ") effacée");
         }
 
-        if (currentPosition.isSolution()) {
+        if (violationMap.isValid() && currentPosition.getEmptyCount() == 0) {
             JOptionPane.showMessageDialog(this,
                     " Félicitations! Grille résolue!",
                     "Victoire!", JOptionPane.INFORMATION_MESSAGE);
@@ -408,36 +390,125 @@ public class BinairoGUI extends JFrame {
     private void updateGridDisplay() {
         if (currentPosition == null) return;
 
+        // Règles violées par toutes les cases, calculées en une passe
+        violationMap = currentPosition.getViolationMap();
+        boardView.setPosition(currentPosition, violationMap);
+
+        updateStatus();
+        schedulePrecompute();
+    }
+
+    /**
+     * Mise à jour après la modification d'une seule case: seules la ligne et la colonne
+     * de la case, et les cases dont l'état de violation a changé, sont redessinées
+     */
+    private void updateCellDisplay(int row, int col) {
+        ViolationMap previous = violationMap;
+        violationMap = currentPosition.getViolationMap();
+        if (previous == null || previous.getSize() != gridSize) {
+            updateGridDisplay();
+            return;
+        }
+
+        boardView.setViolations(violationMap);
+        for (int k = 0; k < gridSize; k++) {
+            boardView.repaintCell(row, k);
+            if (k != row) {
+                boardView.repaintCell(k, col);
+            }
+        }
         for (int i = 0; i < gridSize; i++) {
+            if (i == row) continue;
             for (int j = 0; j < gridSize; j++) {
-                JButton btn = gridButtons[i][j];
-                int value = currentPosition.getValue(i, j);
-
-                if (value == -1) {
-                    btn.setText("");
-                    btn.setBackground(EMPTY_COLOR);
-                    btn.setForeground(new Color(148, 163, 184));
-                } else {
-                    btn.setText(String.valueOf(value));
-                    Color bgColor = value == 0 ? ZERO_COLOR : ONE_COLOR;
-                    btn.setBackground(bgColor);
-                    btn.setForeground(new Color(15, 23, 42));
+                if (j != col && previous.hasViolation(i, j) != violationMap.hasViolation(i, j)) {
+                    boardView.repaintCell(i, j);
                 }
+            }
+        }
 
-                List<String> violations = currentPosition.getViolations(i, j);
-                if (!violations.isEmpty() && value != -1) {
-                    btn.setBackground(ERROR_COLOR);
-                    btn.setForeground(new Color(24, 24, 27));
-                }
+        updateStatus();
+        schedulePrecompute();
+    }
+
+    /**
+     * Relance la résolution en arrière-plan de la grille courante
+     * La résolution précédente est annulée: son résultat ne servirait plus à rien
+     */
+    private void schedulePrecompute() {
+        GameSearch running = precomputeSearch.getAndSet(null);
+        if (running != null) {
+            running.cancel();
+        }
+        if (precomputeTask != null) {
+            precomputeTask.cancel(false);
+        }
+
+        // Grille invalide ou déjà complète: rien à précalculer
+        if (!violationMap.isValid() || currentPosition.getEmptyCount() == 0) {
+            return;
+        }
 
-                btn.setBorder(new CompoundBorder(
-                        new LineBorder(new Color(51, 65, 85), 1, true),
-                        new EmptyBorder(6, 6, 6, 6)
-                ));
+        BinairoPosition puzzle = new BinairoPosition(currentPosition);
+        // Le moteur est publié avant la soumission: la prochaine modification l'annule même
+        // si la tâche n'a pas encore démarré (Future.cancel n'arrête pas une tâche en cours)
+        GameSearch search = BinairoSolver.getDefault().acquire(puzzle);
+        precomputeSearch.set(search);
+        precomputeTask = precomputeExecutor.submit(() -> {
+            try {
+                if (search.isCancelled() || solutionCache.get(puzzle) != null) {
+                    return;
+                }
+                BinairoPosition solution = search.solveForwardChecking();
+                if (!search.isCancelled()) {
+                    solutionCache.put(puzzle, solution);
+                }
+            } finally {
+                if (precomputeSearch.compareAndSet(search, null)) {
+                    BinairoSolver.getDefault().release(search);
+                }
             }
+        });
+    }
+
+    /**
+     * Propose une valeur pour une case, tirée de la solution précalculée
+     */
+    private void showHint() {
+        if (currentPosition == null) {
+            showError("Aucune grille chargée!");
+            return;
+        }
+        if (!violationMap.isValid()) {
+            showError("La grille contient des erreurs: corrigez-les avant de demander un indice.");
+            return;
+        }
+        int[] cell = currentPosition.findHintCell();
+        if (cell == null) {
+            showError("La grille est déjà remplie!");
+            return;
         }
 
-        updateStatus();
+        BinairoPosition solution = solutionCache.get(currentPosition);
+        if (solution == null) {
+            boolean computing = precomputeTask != null && !precomputeTask.isDone();
+            JOptionPane.showMessageDialog(this,
+                    computing ? "Recherche de la solution en cours, réessayez dans un instant."
+                            : "Aucune solution trouvée pour cette grille.",
+                    "Indice", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        int row = cell[0];
+        int col = cell[1];
+        int value = solution.getValue(row, col);
+        int response = JOptionPane.showConfirmDialog(this,
+                "💡 Essayez " + value + " en (" + row + ", " + col + ").\n\nPlacer cette valeur?",
+                "Indice", JOptionPane.YES_NO_OPTION);
+        log("Indice: " + value + " en (" + row + ", " + col + ")");
+        if (response == JOptionPane.YES_OPTION) {
+            currentPosition.setValue(row, col, value);
+            updateCellDisplay(row, col);
+        }
     }
 
     private void createStatusPanel() {
@@ -462,9 +533,11 @@ public class BinairoGUI extends JFrame {
             return;
         }
 
-        if (currentPosition.isSolution()) {
+        // Appelé après la mise à jour de violationMap: inutile de revérifier les règles
+        boolean valid = violationMap.isValid();
+        if (valid && currentPosition.isComplete()) {
             statusLabel.setText("✓ Grille complète et valide!");
-        } else if (currentPosition.isValid()) {
+        } else if (valid) {
             int empty = currentPosition.getEmptyCount();
             statusLabel.setText("✓ Grille valide - " + empty + " cellules vides");
         } else {
@@ -572,43 +645,12 @@ public class BinairoGUI extends JFrame {
             SwingWorker<BinairoPosition, Void> worker = new SwingWorker<BinairoPosition, Void>() {
                 @Override
                 protected BinairoPosition doInBackground() {
-                    BinairoPosition empty = new BinairoPosition(finalSize);
                     Random random = new Random();
-
-                    int initialValues = finalSize / 2;
-                    for (int i = 0; i < initialValues; i++) {
-                        int row = random.nextInt(finalSize);
-                        int col = random.nextInt(finalSize);
-                        int value = random.nextInt(2);
-                        empty.setValue(row, col, value);
-                    }
-
-                    GameSearch search = new GameSearch(empty);
-                    BinairoPosition solved = search.solveForwardChecking();
-                    if (solved == null) {
-                        search = new GameSearch(empty);
-                        solved = search.solveBacktracking();
-                    }
-
+                    BinairoPosition solved = BinairoGenerator.generateSolvedGrid(finalSize, random);
                     if (solved == null) return null;
 
-                    int emptyCells = (int) (finalSize * finalSize * (0.3 + finalDifficulty * 0.1));
-                    java.util.List<int[]> positions = new java.util.ArrayList<>();
-                    for (int i = 0; i < finalSize; i++) {
-                        for (int j = 0; j < finalSize; j++) {
-                            positions.add(new int[]{i, j});
-                        }
-                    }
-                    java.util.Collections.shuffle(positions);
-
-                    BinairoPosition result = new BinairoPosition(solved);
-                    int removed = 0;
-                    for (int[] pos : positions) {
-                        if (removed >= emptyCells) break;
-                        result.setValue(pos[0], pos[1], -1);
-                        removed++;
-                    }
-
+                    BinairoPosition result = BinairoGenerator.createPuzzle(solved, finalDifficulty, random);
+                    solutionCache.put(result, solved);
                     return result;
                 }
 
@@ -634,27 +676,58 @@ public class BinairoGUI extends JFrame {
         }
     }
 
+    /**
+     * Sélecteur de fichier positionné sur binairo_save.txt par défaut
+     */
+    private JFileChooser createFileChooser() {
+        JFileChooser chooser = new JFileChooser(new File("."));
+        chooser.setSelectedFile(new File(SAVE_FILE));
+        return chooser;
+    }
+
     private void loadGrid() {
+        JFileChooser chooser = createFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        if (!file.exists()) {
+            showError("Aucune grille sauvegardée trouvée!");
+            return;
+        }
+
         try {
-            File file = new File("binairo_save.txt");
-            if (!file.exists()) {
-                showError("Aucune grille sauvegardée trouvée!");
+            int count = BinairoReader.count(file);
+            if (count == 0) {
+                showError("Aucune grille dans " + file.getName() + "!");
                 return;
             }
 
-            StringBuilder content = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    content.append(line).append("\n");
+            // Fichier à plusieurs grilles: demander laquelle charger
+            int number = 1;
+            if (count > 1) {
+                String input = JOptionPane.showInputDialog(this,
+                    "Le fichier contient " + count + " grilles.\nNuméro de la grille (1-" + count + "):", "1");
+                if (input == null) {
+                    return;
+                }
+                number = Integer.parseInt(input.trim());
+                if (number < 1 || number > count) {
+                    showError("Numéro invalide!");
+                    return;
                 }
             }
 
-            currentPosition = BinairoPosition.fromSaveString(content.toString());
+            try (BinairoReader reader = new BinairoReader(file)) {
+                currentPosition = reader.skipTo(number - 1);
+                solutionCache.put(currentPosition, reader.getSolution());
+            }
             gridSize = currentPosition.getSize();
             recreateGrid();
             updateGridDisplay();
-            log("Grille chargée depuis binairo_save.txt");
+            log("Grille " + (count > 1 ? number + "/" + count + " " : "") + "chargée depuis " + file.getName());
+        } catch (NumberFormatException e) {
+            showError("Valeur invalide!");
         } catch (IOException e) {
             showError("Erreur lors du chargement: " + e.getMessage());
         }
@@ -666,15 +739,33 @@ public class BinairoGUI extends JFrame {
             return;
         }
 
-        try {
-            try (PrintWriter writer = new PrintWriter(new FileWriter("binairo_save.txt"))) {
-                writer.print(currentPosition.toSaveString());
+        JFileChooser chooser = createFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+
+        boolean append = false;
+        if (file.exists() && file.length() > 0) {
+            Object[] options = {"Ajouter", "Remplacer", "Annuler"};
+            int choice = JOptionPane.showOptionDialog(this,
+                "Le fichier " + file.getName() + " existe déjà.\nAjouter la grille à la fin ou remplacer le fichier?",
+                "Fichier existant", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE,
+                null, options, options[0]);
+            if (choice != 0 && choice != 1) {
+                return;
             }
-            log("Grille sauvegardée dans binairo_save.txt");
-            JOptionPane.showMessageDialog(this, "Grille sauvegardée avec succès!", "Succès", JOptionPane.INFORMATION_MESSAGE);
+            append = choice == 0;
+        }
+
+        try (BinairoWriter writer = new BinairoWriter(file, append)) {
+            writer.write(currentPosition);
         } catch (IOException e) {
             showError("Erreur lors de la sauvegarde: " + e.getMessage());
+            return;
         }
+        log("Grille " + (append ? "ajoutée à " : "sauvegardée dans ") + file.getName());
+        JOptionPane.showMessageDialog(this, "Grille sauvegardée avec succès!", "Succès", JOptionPane.INFORMATION_MESSAGE);
     }
 
     private void solveAutomatically(String method) {
@@ -683,45 +774,85 @@ public class BinairoGUI extends JFrame {
             return;
         }
 
+        if (solveWorker != null) {
+            return;
+        }
+
         log("Résolution avec " + method + "...");
         statusLabel.setText("Résolution en cours...");
 
-        SwingWorker<BinairoPosition, Void> worker = new SwingWorker<BinairoPosition, Void>() {
-            private GameSearch search;
+        // Copie faite sur l'EDT: currentPosition n'est modifiée que par l'EDT
+        BinairoPosition puzzle = new BinairoPosition(currentPosition);
+        SwingWorker<BinairoPosition, Progress> worker = new SwingWorker<BinairoPosition, Progress>() {
+            private long nodes;
+            private long timeMs;
+            private boolean fromCache;
+            private final long start = System.nanoTime();
 
             @Override
             protected BinairoPosition doInBackground() {
-                search = new GameSearch(currentPosition);
-                BinairoPosition solution = null;
-
-                switch (method) {
-                    case GameSearch.BACKTRACKING:
-                        solution = search.solveBacktracking();
-                        break;
-                    case GameSearch.FC:
-                        solution = search.solveForwardChecking();
-                        break;
-                    case GameSearch.AC3:
-                        solution = search.solveAC3();
-                        break;
-                    case GameSearch.AC4:
-                        solution = search.solveAC4();
-                        break;
+                BinairoPosition solution = solutionCache.get(puzzle);
+                if (solution != null) {
+                    fromCache = true;
+                    return solution;
+                }
+
+                GameSearch search = BinairoSolver.getDefault().acquire(puzzle);
+                try {
+                    // publish() ne bloque pas: les états publiés entre deux rafraîchissements
+                    // de l'EDT sont regroupés et seul le dernier est affiché
+                    search.setProgressListener((partial, explored, depth) ->
+                            publish(new Progress(partial, explored, depth)), PROGRESS_INTERVAL_MS);
+
+                    switch (method) {
+                        case GameSearch.BACKTRACKING:
+                            solution = search.solveBacktracking();
+                            break;
+                        case GameSearch.FC:
+                            solution = search.solveForwardChecking();
+                            break;
+                        case GameSearch.AC3:
+                            solution = search.solveAC3();
+                            break;
+                        case GameSearch.AC4:
+                            solution = search.solveAC4();
+                            break;
+                    }
+                    nodes = search.getNodesExplored();
+                    timeMs = search.getExecutionTime();
+                } finally {
+                    BinairoSolver.getDefault().release(search);
                 }
 
+                solutionCache.put(puzzle, solution);
                 return solution;
             }
 
+            @Override
+            protected void process(List<Progress> chunks) {
+                if (isDone()) return;
+                Progress last = chunks.get(chunks.size() - 1);
+                double seconds = Math.max(1e-3, (System.nanoTime() - start) / 1e9);
+                boardView.setPosition(last.partial, null);
+                statusLabel.setText(String.format("Résolution en cours... %,d nœuds (%,.0f nœuds/s), profondeur %d",
+                        last.nodes, last.nodes / seconds, last.depth));
+            }
+
             @Override
             protected void done() {
+                solveWorker = null;
+                // Rétablir la grille du joueur à la place de la dernière affectation partielle
+                updateGridDisplay();
                 try {
                     BinairoPosition solution = get();
                     if (solution != null && solution.isSolution()) {
+                        String stats = fromCache
+                                ? "Solution déjà connue (cache)\n\n"
+                                : "Méthode: " + method + "\n" +
+                                        "Nœuds explorés: " + nodes + "\n" +
+                                        "Temps: " + timeMs + " ms\n\n";
                         int response = JOptionPane.showConfirmDialog(BinairoGUI.this,
-                                " Solution trouvée!\n\n" +
-                                        "Méthode: " + method + "\n" +
-                                        "Nœuds explorés: " + search.getNodesExplored() + "\n" +
-                                        "Temps: " + search.getExecutionTime() + " ms\n\n" +
+                                " Solution trouvée!\n\n" + stats +
                                         "Remplacer la grille actuelle par la solution?",
                                 "Solution trouvée",
                                 JOptionPane.YES_NO_OPTION);
@@ -731,9 +862,13 @@ public class BinairoGUI extends JFrame {
                             updateGridDisplay();
                         }
 
-                        log("✓ Solution trouvée avec " + method + " (" +
-                                search.getNodesExplored() + " nœuds, " +
-                                search.getExecutionTime() + " ms)");
+                        if (fromCache) {
+                            log("✓ Solution trouvée dans le cache");
+                        } else {
+                            log("✓ Solution trouvée avec " + method + " (" +
+                                    nodes + " nœuds, " +
+                                    timeMs + " ms)");
+                        }
                     } else {
                         JOptionPane.showMessageDialog(BinairoGUI.this,
                                 " Aucune solution trouvée!\nLa grille pourrait être insoluble.",
@@ -747,9 +882,25 @@ public class BinairoGUI extends JFrame {
             }
         };
 
+        solveWorker = worker;
         worker.execute();
     }
 
+    /**
+     * État de la recherche publié par le SwingWorker de résolution
+     */
+    private static class Progress {
+        final BinairoPosition partial;
+        final int nodes;
+        final int depth;
+
+        Progress(BinairoPosition partial, int nodes, int depth) {
+            this.partial = partial;
+            this.nodes = nodes;
+            this.depth = depth;
+        }
+    }
+
     private void compareMethods() {
         if (currentPosition == null) {
             showError("Aucune grille chargée!");
@@ -759,21 +910,32 @@ public class BinairoGUI extends JFrame {
         log("Comparaison des méthodes en cours...");
         statusLabel.setText("Comparaison en cours...");
 
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+        SwingWorker<List<GameSearch.SearchResult>, Void> worker = new SwingWorker<List<GameSearch.SearchResult>, Void>() {
             @Override
-            protected Void doInBackground() {
-                GameSearch.compareMethods(currentPosition);
-                return null;
+            protected List<GameSearch.SearchResult> doInBackground() {
+                return GameSearch.compareMethods(currentPosition);
             }
 
             @Override
             protected void done() {
-                log("Comparaison terminée");
-                statusLabel.setText("Comparaison terminée - voir la console");
-                JOptionPane.showMessageDialog(BinairoGUI.this,
-                        " Comparaison terminée!\nVoir la console pour les résultats détaillés.",
-                        "Comparaison",
-                        JOptionPane.INFORMATION_MESSAGE);
+                try {
+                    List<GameSearch.SearchResult> results = get();
+                    StringBuilder msg = new StringBuilder(" Comparaison terminée!\n\n");
+                    for (GameSearch.SearchResult result : results) {
+                        String line = result.getMethod() + ": " + result.getSolvedLabel() + " - " +
+                                result.getNodes() + " nœuds, " + result.getTime() + " ms";
+                        log(line);
+                        msg.append("• ").append(line).append("\n");
+                    }
+                    log("Comparaison terminée");
+                    statusLabel.setText("Comparaison terminée");
+                    JOptionPane.showMessageDialog(BinairoGUI.this,
+                            msg.toString(),
+                            "Comparaison",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    showError("Erreur: " + e.getMessage());
+                }
             }
         };
 
@@ -804,9 +966,10 @@ public class BinairoGUI extends JFrame {
             return;
         }
 
-        boolean rule1 = currentPosition.checkRule1();
-        boolean rule2 = currentPosition.checkRule2();
-        boolean rule3 = currentPosition.checkRule3();
+        ViolationMap violations = currentPosition.getViolationMap();
+        boolean rule1 = !violations.violates(ViolationMap.RULE1);
+        boolean rule2 = !violations.violates(ViolationMap.RULE2);
+        boolean rule3 = !violations.violates(ViolationMap.RULE3);
 
         StringBuilder msg = new StringBuilder("🔍 Vérification des règles:\n\n");
         msg.append("Règle 1 (Max 2 identiques côte à côte): ");
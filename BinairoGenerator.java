@@ -0,0 +1,76 @@
+import java.util.*;
+
+/**
+ * Génération de grilles aléatoires
+ * Partagé par le mode terminal, l'interface graphique et le serveur HTTP
+ */
+public class BinairoGenerator {
+    public static final int BEGINNER = 1;
+    public static final int INTERMEDIATE = 2;
+    public static final int EXPERT = 3;
+
+    private BinairoGenerator() {
+    }
+
+    /**
+     * Nombre de cases vidées selon la difficulté: 40%, 50% ou 60% de la grille
+     * Une difficulté inconnue est traitée comme intermédiaire
+     */
+    public static int emptyCells(int size, int difficulty) {
+        if (difficulty < BEGINNER || difficulty > EXPERT) {
+            difficulty = INTERMEDIATE;
+        }
+        return (int) (size * size * (0.3 + difficulty * 0.1));
+    }
+
+    /**
+     * Génère une grille complète résolue
+     * Place quelques valeurs aléatoires puis utilise un algorithme de résolution
+     * Retourne null si aucune solution n'a été trouvée
+     */
+    public static BinairoPosition generateSolvedGrid(int size, Random random) {
+        BinairoPosition grid = new BinairoPosition(size);
+
+        // Placer quelques valeurs initiales pour accélérer la résolution
+        int initialValues = size / 2;
+        for (int i = 0; i < initialValues; i++) {
+            int row = random.nextInt(size);
+            int col = random.nextInt(size);
+            int value = random.nextInt(2);
+            grid.setValue(row, col, value);
+        }
+
+        // Essayer Forward Checking d'abord (plus rapide)
+        BinairoSolver solver = BinairoSolver.getDefault();
+        BinairoPosition solution = solver.solve(grid, GameSearch.FC).getSolution();
+
+        // Si échec, essayer Backtracking
+        if (solution == null) {
+            solution = solver.solve(grid, GameSearch.BACKTRACKING).getSolution();
+        }
+
+        return solution;
+    }
+
+    /**
+     * Crée le puzzle en vidant aléatoirement des cases de la grille résolue
+     */
+    public static BinairoPosition createPuzzle(BinairoPosition solved, int difficulty, Random random) {
+        int size = solved.getSize();
+        List<int[]> positions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                positions.add(new int[]{i, j});
+            }
+        }
+        Collections.shuffle(positions, random);
+
+        BinairoPosition puzzle = new BinairoPosition(solved);
+        int emptyCells = emptyCells(size, difficulty);
+        for (int k = 0; k < emptyCells; k++) {
+            int[] pos = positions.get(k);
+            puzzle.setValue(pos[0], pos[1], -1);
+        }
+        return puzzle;
+    }
+}
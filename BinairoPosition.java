@@ -7,12 +7,23 @@ import java.util.*;
 public class BinairoPosition {
     private int[][] grid;  
     private int size;      
+    // Hachage de Zobrist: OU exclusif des clés (case, valeur) des cases remplies,
+    // tenu à jour par setValue
+    private long zobrist;
     
     // Constantes pour les valeurs possibles dans une cellule
     private static final int EMPTY = -1;  
     private static final int ZERO = 0;    
     private static final int ONE = 1;    
     
+    // Symétries qui préservent les règles du jeu, combinables par OU binaire
+    // Appliquées dans l'ordre: transposition, miroirs, puis échange des 0 et des 1
+    public static final int SYM_FLIP_COLS = 1;    // miroir gauche/droite
+    public static final int SYM_FLIP_ROWS = 2;    // miroir haut/bas
+    public static final int SYM_TRANSPOSE = 4;    // lignes <-> colonnes
+    public static final int SYM_SWAP_VALUES = 8;  // 0 <-> 1
+    public static final int SYMMETRY_COUNT = 16;
+    
     /**
      * Crée une nouvelle grille vide de la taille spécifiée
      */
@@ -36,8 +47,23 @@ public class BinairoPosition {
         for (int i = 0; i < size; i++) {
             System.arraycopy(other.grid[i], 0, this.grid[i], 0, size);
         }
+        this.zobrist = other.zobrist;
     }
     
+    /**
+     * Recopie le contenu d'une grille de même taille, sans allocation
+     * Utilisé par le moteur de recherche pour réutiliser ses grilles de travail
+     */
+    public void copyFrom(BinairoPosition other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Taille de grille différente: " + other.size + " au lieu de " + size);
+        }
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(other.grid[i], 0, grid[i], 0, size);
+        }
+        zobrist = other.zobrist;
+    }
+
     public int getSize() {
         return size;
     }
@@ -48,10 +74,38 @@ public class BinairoPosition {
     
     public void setValue(int row, int col, int value) {
         if (value == EMPTY || value == ZERO || value == ONE) {
+            int previous = grid[row][col];
+            if (previous != EMPTY) {
+                zobrist ^= zobristKey(row * size + col, previous);
+            }
+            if (value != EMPTY) {
+                zobrist ^= zobristKey(row * size + col, value);
+            }
             grid[row][col] = value;
         }
     }
     
+    /**
+     * Hachage de Zobrist de la grille, en O(1): deux grilles de même taille et de même
+     * contenu ont le même hachage, quel que soit l'ordre dans lequel les cases ont été
+     * remplies (utilisé par la table de transposition de GameSearch)
+     */
+    public long getZobristHash() {
+        return zobrist;
+    }
+    
+    /**
+     * Clé de Zobrist de la valeur value (0 ou 1) dans la case d'indice index
+     * Calculée par le mélange de SplitMix64 plutôt que tirée dans une table: les clés
+     * sont les mêmes d'une exécution à l'autre et pour toutes les tailles de grille
+     */
+    private static long zobristKey(int index, int value) {
+        long z = (2L * index + value + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
     public boolean isEmpty(int row, int col) {
         return grid[row][col] == EMPTY;
     }
@@ -281,6 +335,149 @@ public class BinairoPosition {
         return pos;
     }
     
+    /**
+     * Convertit la grille en une seule ligne de size*size caractères (0, 1, ou -)
+     * Format utilisé par le mode batch (une grille par ligne)
+     */
+    public String toLineString() {
+        StringBuilder sb = new StringBuilder(size * size);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                sb.append(grid[i][j] == EMPTY ? '-' : (char) ('0' + grid[i][j]));
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Reconstruit une grille depuis une ligne de size*size caractères
+     * (0, 1, et - ou . pour une case vide); la taille est déduite de la longueur
+     */
+    public static BinairoPosition fromLineString(String line) {
+        String cells = line.trim();
+        int size = (int) Math.round(Math.sqrt(cells.length()));
+        if (size == 0 || size * size != cells.length()) {
+            throw new IllegalArgumentException("longueur " + cells.length() + " qui n'est pas un carré");
+        }
+        if (size % 2 != 0) {
+            throw new IllegalArgumentException("taille impaire: " + size);
+        }
+        BinairoPosition pos = new BinairoPosition(size);
+        for (int k = 0; k < cells.length(); k++) {
+            char c = cells.charAt(k);
+            if (c == '0') {
+                pos.setValue(k / size, k % size, ZERO);
+            } else if (c == '1') {
+                pos.setValue(k / size, k % size, ONE);
+            } else if (c != '-' && c != '.') {
+                throw new IllegalArgumentException("caractère invalide '" + c + "' en position " + k);
+            }
+        }
+        return pos;
+    }
+    
+    /**
+     * Retourne la grille transformée par la symétrie indiquée (combinaison de SYM_*)
+     * La grille transformée est valide/résoluble si et seulement si l'originale l'est
+     */
+    public BinairoPosition transform(int symmetry) {
+        BinairoPosition result = new BinairoPosition(size);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int target = transformIndex(symmetry, r, c);
+                result.setValue(target / size, target % size, transformValue(symmetry, grid[r][c]));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Symétrie qui annule la symétrie donnée: transform(s).transform(inverseSymmetry(s)) == this
+     */
+    public static int inverseSymmetry(int symmetry) {
+        if ((symmetry & SYM_TRANSPOSE) == 0) {
+            return symmetry;
+        }
+        // Transposer puis retourner les colonnes s'annule en retournant les lignes puis en transposant
+        int flips = symmetry & (SYM_FLIP_COLS | SYM_FLIP_ROWS);
+        int swapped = ((flips & SYM_FLIP_COLS) != 0 ? SYM_FLIP_ROWS : 0)
+                    | ((flips & SYM_FLIP_ROWS) != 0 ? SYM_FLIP_COLS : 0);
+        return (symmetry & ~(SYM_FLIP_COLS | SYM_FLIP_ROWS)) | swapped;
+    }
+    
+    /**
+     * Indice (ligne * taille + colonne) de la cellule (row, col) après la symétrie
+     */
+    private int transformIndex(int symmetry, int row, int col) {
+        int r = row, c = col;
+        if ((symmetry & SYM_TRANSPOSE) != 0) {
+            r = col;
+            c = row;
+        }
+        if ((symmetry & SYM_FLIP_COLS) != 0) c = size - 1 - c;
+        if ((symmetry & SYM_FLIP_ROWS) != 0) r = size - 1 - r;
+        return r * size + c;
+    }
+    
+    private static int transformValue(int symmetry, int value) {
+        if ((symmetry & SYM_SWAP_VALUES) != 0 && value != EMPTY) {
+            return 1 - value;
+        }
+        return value;
+    }
+    
+    /**
+     * Encodage compact de la grille (2 bits par cellule)
+     */
+    public GridKey toKey() {
+        return toKey(0);
+    }
+    
+    /**
+     * Encodage compact de la grille transformée par la symétrie, sans construire la grille transformée
+     */
+    public GridKey toKey(int symmetry) {
+        long[] bits = new long[GridKey.wordCount(size)];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                GridKey.setCell(bits, transformIndex(symmetry, r, c), transformValue(symmetry, grid[r][c]));
+            }
+        }
+        return new GridKey(size, bits);
+    }
+    
+    /**
+     * Forme canonique: la plus petite clé (ordre lexicographique des cellules, vide < 0 < 1)
+     * parmi les 16 symétries de la grille (8 symétries du carré, avec ou sans échange 0/1)
+     * Deux grilles ont la même clé canonique si et seulement si l'une est une symétrie de l'autre
+     */
+    public GridKey canonicalKey() {
+        return toKey(canonicalSymmetry());
+    }
+    
+    /**
+     * Représentant canonique de la grille (voir canonicalKey)
+     */
+    public BinairoPosition canonicalForm() {
+        return transform(canonicalSymmetry());
+    }
+    
+    /**
+     * Symétrie qui transforme cette grille en sa forme canonique
+     */
+    public int canonicalSymmetry() {
+        GridKey best = toKey(0);
+        int bestSymmetry = 0;
+        for (int s = 1; s < SYMMETRY_COUNT; s++) {
+            GridKey key = toKey(s);
+            if (key.compareTo(best) < 0) {
+                best = key;
+                bestSymmetry = s;
+            }
+        }
+        return bestSymmetry;
+    }
+    
     /**
      * Retourne la liste des règles violées pour une position spécifique
      */
@@ -288,20 +485,132 @@ public class BinairoPosition {
         List<String> violations = new ArrayList<>();
         
         if (!checkRule1At(row, col)) {
-            violations.add("Règle 1 violée: Trois chiffres identiques côte à côte");
+            violations.add(ViolationMap.RULE1_MESSAGE);
         }
         
         if (!checkRule2At(row, col)) {
-            violations.add("Règle 2 violée: Déséquilibre dans la ligne ou colonne");
+            violations.add(ViolationMap.RULE2_MESSAGE);
         }
         
         if (!checkRule3At(row, col)) {
-            violations.add("Règle 3 violée: Ligne ou colonne identique à une autre");
+            violations.add(ViolationMap.RULE3_MESSAGE);
         }
         
         return violations;
     }
     
+    /**
+     * Case à proposer comme indice: la première case vide dont une seule valeur ne
+     * viole aucune règle, ou à défaut la première case vide. Retourne null si la grille est pleine
+     */
+    public int[] findHintCell() {
+        int[] first = null;
+        for (int[] cell : getEmptyPositions()) {
+            if (first == null) {
+                first = cell;
+            }
+            int valid = 0;
+            for (int value = ZERO; value <= ONE; value++) {
+                grid[cell[0]][cell[1]] = value;
+                if (getViolations(cell[0], cell[1]).isEmpty()) {
+                    valid++;
+                }
+            }
+            grid[cell[0]][cell[1]] = EMPTY;
+            if (valid == 1) {
+                return cell;
+            }
+        }
+        return first;
+    }
+    
+    /**
+     * Calcule les règles violées par toutes les cases en une seule passe O(n²)
+     * Même résultat que getViolations(row, col) appelé sur chaque case, qui coûte O(n⁴) au total
+     */
+    public ViolationMap getViolationMap() {
+        byte[] masks = new byte[size * size];
+        int[][] rowCounts = new int[size][2];
+        int[][] colCounts = new int[size][2];
+        long[] rowHash = new long[size];
+        long[] colHash = new long[size];
+        
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int value = grid[i][j];
+                if (value != EMPTY) {
+                    rowCounts[i][value]++;
+                    colCounts[j][value]++;
+                }
+                rowHash[i] = rowHash[i] * 31 + value + 1;
+                colHash[j] = colHash[j] * 31 + value + 1;
+                
+                // Règle 1: seules les extrémités d'un triplet sont marquées, comme checkRule1At
+                if (value == EMPTY) continue;
+                if (j + 2 < size && grid[i][j+1] == value && grid[i][j+2] == value) {
+                    masks[i * size + j] |= ViolationMap.RULE1;
+                    masks[i * size + j + 2] |= ViolationMap.RULE1;
+                }
+                if (i + 2 < size && grid[i+1][j] == value && grid[i+2][j] == value) {
+                    masks[i * size + j] |= ViolationMap.RULE1;
+                    masks[(i + 2) * size + j] |= ViolationMap.RULE1;
+                }
+            }
+        }
+        
+        // Règle 2: toutes les cases d'une ligne ou colonne déséquilibrée
+        int maxAllowed = (size % 2 == 0) ? size / 2 : size / 2 + 1;
+        boolean[] rowUnbalanced = new boolean[size];
+        boolean[] colUnbalanced = new boolean[size];
+        for (int k = 0; k < size; k++) {
+            rowUnbalanced[k] = rowCounts[k][ZERO] > maxAllowed || rowCounts[k][ONE] > maxAllowed;
+            colUnbalanced[k] = colCounts[k][ZERO] > maxAllowed || colCounts[k][ONE] > maxAllowed;
+        }
+        
+        // Règle 3: lignes complètes regroupées par empreinte, comparées seulement entre elles
+        boolean[] rowDuplicate = findDuplicates(rowCounts, rowHash, true);
+        boolean[] colDuplicate = findDuplicates(colCounts, colHash, false);
+        
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (rowUnbalanced[i] || colUnbalanced[j]) {
+                    masks[i * size + j] |= ViolationMap.RULE2;
+                }
+                if (rowDuplicate[i] || colDuplicate[j]) {
+                    masks[i * size + j] |= ViolationMap.RULE3;
+                }
+            }
+        }
+        
+        return new ViolationMap(size, masks);
+    }
+    
+    /**
+     * Marque les lignes (ou colonnes) complètes identiques à une autre
+     * Une ligne n'est comparée qu'aux représentants distincts de même empreinte
+     */
+    private boolean[] findDuplicates(int[][] counts, long[] hash, boolean rows) {
+        boolean[] duplicate = new boolean[size];
+        Map<Long, List<Integer>> representatives = new HashMap<>();
+        for (int k = 0; k < size; k++) {
+            if (counts[k][ZERO] + counts[k][ONE] != size) continue;
+            List<Integer> candidates = representatives.computeIfAbsent(hash[k], h -> new ArrayList<>(1));
+            boolean found = false;
+            for (int other : candidates) {
+                if (rows ? areRowsEqual(k, other) : areColsEqual(k, other)) {
+                    duplicate[k] = true;
+                    duplicate[other] = true;
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                candidates.add(k);
+            }
+        }
+        return duplicate;
+    }
+    
     /**
      * Vérifie la règle 1 pour une position spécifique
      * Regarde les voisins pour détecter trois identiques consécutifs
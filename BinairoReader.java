@@ -0,0 +1,212 @@
+import java.util.*;
+import java.io.*;
+
+/**
+ * Lecture en flux d'un fichier contenant plusieurs grilles au format de toSaveString
+ * Une seule grille est gardée en mémoire à la fois, quelle que soit la taille du fichier
+ *
+ * Format d'un enregistrement: une ligne avec la taille, puis une ligne par ligne de la grille
+ * Les lignes vides et les lignes commençant par '#' entre deux grilles sont ignorées
+ * Une grille dont l'en-tête est "<taille> solution" (écrite par BinairoWriter) est la
+ * solution de la grille qui la précède: elle n'est pas retournée par next() mais par getSolution()
+ */
+public class BinairoReader implements Closeable, Iterable<BinairoPosition> {
+    public static final String SOLUTION_TAG = "solution";
+
+    private final BufferedReader reader;
+    private final String name;
+    private int lineNumber;
+
+    // Enregistrement lu en avance pour savoir si la grille courante a une solution
+    private BinairoPosition pending;
+    private boolean pendingIsSolution;
+    private boolean pendingLoaded;
+
+    private BinairoPosition solution;
+    private int index = -1;
+
+    public BinairoReader(Reader reader, String name) {
+        this.reader = reader instanceof BufferedReader
+            ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+        this.name = name;
+    }
+
+    public BinairoReader(File file) throws IOException {
+        this(new FileReader(file), file.getName());
+    }
+
+    /**
+     * Retourne la grille suivante, ou null à la fin du fichier
+     */
+    public BinairoPosition next() throws IOException {
+        solution = null;
+        loadPending();
+        // Une solution sans grille avant elle est ignorée
+        while (pending != null && pendingIsSolution) {
+            pendingLoaded = false;
+            loadPending();
+        }
+        if (pending == null) {
+            return null;
+        }
+
+        BinairoPosition puzzle = pending;
+        pendingLoaded = false;
+        index++;
+
+        loadPending();
+        if (pending != null && pendingIsSolution) {
+            solution = pending;
+            pendingLoaded = false;
+        }
+        return puzzle;
+    }
+
+    /**
+     * Avance jusqu'à la grille numéro index (à partir de 0) et la retourne
+     * Retourne null si le fichier contient moins de grilles
+     */
+    public BinairoPosition skipTo(int index) throws IOException {
+        BinairoPosition puzzle;
+        do {
+            puzzle = next();
+        } while (puzzle != null && this.index < index);
+        return puzzle;
+    }
+
+    /**
+     * Nombre de grilles du fichier (lecture complète, en mémoire constante)
+     */
+    public static int count(File file) throws IOException {
+        try (BinairoReader reader = new BinairoReader(file)) {
+            int count = 0;
+            while (reader.next() != null) {
+                count++;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Solution enregistrée avec la dernière grille retournée par next(), ou null
+     */
+    public BinairoPosition getSolution() {
+        return solution;
+    }
+
+    /**
+     * Numéro (à partir de 0) de la dernière grille retournée par next()
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    private void loadPending() throws IOException {
+        if (pendingLoaded) {
+            return;
+        }
+        pendingLoaded = true;
+        pending = null;
+        pendingIsSolution = false;
+
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) return;
+            lineNumber++;
+            line = line.trim();
+        } while (line.isEmpty() || line.startsWith("#"));
+
+        String[] header = line.split("\\s+");
+        int size;
+        try {
+            size = Integer.parseInt(header[0]);
+        } catch (NumberFormatException e) {
+            throw error("taille de grille attendue, trouvé \"" + line + "\"");
+        }
+        if (size <= 0) {
+            throw error("taille de grille invalide: " + size);
+        }
+        pendingIsSolution = header.length > 1 && header[1].equalsIgnoreCase(SOLUTION_TAG);
+
+        BinairoPosition pos = new BinairoPosition(size);
+        for (int i = 0; i < size; i++) {
+            String row = reader.readLine();
+            if (row == null) {
+                throw error("grille incomplète: " + i + " ligne(s) sur " + size);
+            }
+            lineNumber++;
+            row = row.trim();
+            for (int j = 0; j < row.length() && j < size; j++) {
+                char c = row.charAt(j);
+                if (c == '0') {
+                    pos.setValue(i, j, 0);
+                } else if (c == '1') {
+                    pos.setValue(i, j, 1);
+                }
+            }
+        }
+        pending = pos;
+    }
+
+    private IOException error(String message) {
+        return new IOException(name + ", ligne " + lineNumber + ": " + message);
+    }
+
+    /**
+     * Parcourt les grilles restantes; les erreurs de lecture deviennent des UncheckedIOException
+     */
+    @Override
+    public Iterator<BinairoPosition> iterator() {
+        return new Iterator<BinairoPosition>() {
+            private BinairoPosition nextPuzzle;
+            private boolean fetched;
+
+            @Override
+            public boolean hasNext() {
+                if (!fetched) {
+                    try {
+                        nextPuzzle = BinairoReader.this.next();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    fetched = true;
+                }
+                return nextPuzzle != null;
+            }
+
+            @Override
+            public BinairoPosition next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                fetched = false;
+                return nextPuzzle;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Fichiers .txt d'un dossier triés par nom, ou le fichier lui-même
+     * Utilisé par les outils qui acceptent un fichier ou un dossier de grilles
+     */
+    public static File[] listInputs(File input) throws IOException {
+        if (input.isDirectory()) {
+            File[] files = input.listFiles((dir, fileName) -> fileName.endsWith(".txt"));
+            if (files == null) {
+                throw new IOException("Impossible de lire le dossier " + input);
+            }
+            Arrays.sort(files);
+            return files;
+        }
+        if (!input.exists()) {
+            throw new IOException("Fichier introuvable: " + input);
+        }
+        return new File[]{input};
+    }
+}
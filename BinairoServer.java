@@ -0,0 +1,425 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serveur HTTP local exposant le moteur de résolution en JSON
+ *
+ * Points d'entrée (GET avec paramètres d'URL, ou POST avec un formulaire encodé):
+ *   /solve     grid, method (BT|FC|AC3|AC4|SAC|REG), maxNodes, timeoutMs
+ *   /hint      grid, row et col (optionnels: sinon une case est choisie)
+ *   /validate  grid
+ *   /generate  size (6, 8 ou 10), difficulty (1 à 3)
+ *   /metrics   métriques de recherche au format Prometheus
+ *
+ * Une grille est passée au format de toLineString (size*size caractères 0, 1 ou -)
+ * Chaque requête est traitée sur un thread virtuel (Java 21+), sinon par un pool borné
+ * Le budget de chaque résolution (nœuds, temps) est borné par les limites du serveur
+ *
+ * Usage: java BinairoServer [--port 8080] [--host 127.0.0.1] [--max-nodes N] [--timeout-ms N]
+ */
+public class BinairoServer {
+    // Taille maximale du corps d'une requête
+    private static final int MAX_BODY = 1 << 16;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SolutionCache cache = new SolutionCache(4096);
+    private final SearchMetrics metrics = new SearchMetrics();
+    private final BinairoSolver solver = new BinairoSolver(metrics);
+    private final ValidationService validation = new ValidationService();
+    private final int maxNodes;
+    private final long maxTimeMs;
+
+    public BinairoServer(InetSocketAddress address, int maxNodes, long maxTimeMs) throws IOException {
+        this.maxNodes = maxNodes;
+        this.maxTimeMs = maxTimeMs;
+        this.server = HttpServer.create(address, 0);
+        this.executor = createExecutor();
+        server.setExecutor(executor);
+
+        server.createContext("/solve", handler(this::solve));
+        server.createContext("/hint", handler(this::hint));
+        server.createContext("/validate", handler(this::validate));
+        server.createContext("/generate", handler(this::generate));
+        server.createContext("/metrics", exchange -> {
+            try {
+                send(exchange, 200, "text/plain; version=0.0.4", metrics.toPrometheus());
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    public static void main(String[] args) {
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+        int port = 8080;
+        int maxNodes = 50000;
+        long maxTimeMs = 5000;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Valeur manquante pour " + arg);
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--port":
+                        port = Integer.parseInt(value);
+                        break;
+                    case "--host":
+                        host = value;
+                        break;
+                    case "--max-nodes":
+                        maxNodes = Integer.parseInt(value);
+                        break;
+                    case "--timeout-ms":
+                        maxTimeMs = Long.parseLong(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Option inconnue: " + arg);
+                }
+            }
+            if (maxNodes <= 0 || maxTimeMs <= 0) {
+                throw new IllegalArgumentException("Les limites doivent être positives");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur: " + e.getMessage());
+            System.out.println("Usage: java BinairoServer [--port 8080] [--host 127.0.0.1] [--max-nodes N] [--timeout-ms N]");
+            System.exit(1);
+            return;
+        }
+
+        try {
+            BinairoServer server = new BinairoServer(new InetSocketAddress(host, port), maxNodes, maxTimeMs);
+            server.start();
+            System.out.println("✓ Serveur Binairo démarré sur http://" + host + ":" + server.getPort()
+                + " (" + server.describeExecutor() + ")");
+        } catch (IOException e) {
+            System.err.println("Erreur au démarrage du serveur: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Arrête le serveur en laissant au plus delaySeconds aux requêtes en cours
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        validation.close();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public SearchMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Un thread virtuel par requête si la JVM le permet (Java 21+)
+     * Le serveur reste compilable et utilisable avec une JVM plus ancienne: il utilise
+     * alors un pool borné, dimensionné sur le nombre de cœurs
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Runtime.getRuntime().availableProcessors() * 2;
+            return Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "binairo-http");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private String describeExecutor() {
+        return executor instanceof ThreadPoolExecutor
+            ? ((ThreadPoolExecutor) executor).getMaximumPoolSize() + " threads"
+            : "threads virtuels";
+    }
+
+    // ===== Points d'entrée =====
+
+    private String solve(Map<String, String> params) {
+        BinairoPosition puzzle = gridParam(params);
+        String method = params.containsKey("method")
+            ? BinairoBenchmark.parseMethod(params.get("method")) : GameSearch.FC;
+
+        BinairoPosition cached = cache.get(puzzle);
+        if (cached != null) {
+            return "{\"solved\": true, \"cached\": true, \"solution\": \"" + cached.toLineString() + "\"}";
+        }
+
+        BinairoSolver.Result result = solver.solve(puzzle, method,
+            budget(params, "maxNodes", maxNodes), budget(params, "timeoutMs", maxTimeMs));
+
+        boolean solved = result.isSolved();
+        if (solved) {
+            cache.put(puzzle, result.getSolution());
+        }
+        return "{\"solved\": " + solved + ", \"cached\": false"
+            + (solved ? ", \"solution\": \"" + result.getSolution().toLineString() + "\"" : "")
+            + ", \"method\": \"" + BinairoBenchmark.jsonEscape(method) + "\""
+            + ", \"nodes\": " + result.getNodes()
+            + ", \"timeMs\": " + result.getTimeMs()
+            + ", \"limitReached\": " + result.isLimitReached() + "}";
+    }
+
+    /**
+     * Valeur conseillée pour une case: d'après la solution si elle est trouvée dans
+     * le budget, sinon d'après LCV (valeur la moins contraignante)
+     * Sans row/col, la case choisie est la première case vide dont une seule valeur
+     * ne viole aucune règle, ou à défaut la première case vide
+     */
+    private String hint(Map<String, String> params) {
+        BinairoPosition puzzle = gridParam(params);
+        int size = puzzle.getSize();
+        int row;
+        int col;
+        if (params.containsKey("row") || params.containsKey("col")) {
+            row = intParam(params, "row");
+            col = intParam(params, "col");
+            if (row < 0 || row >= size || col < 0 || col >= size) {
+                throw new IllegalArgumentException("Position invalide");
+            }
+            if (!puzzle.isEmpty(row, col)) {
+                throw new IllegalArgumentException("Cette position est déjà remplie");
+            }
+        } else {
+            int[] cell = puzzle.findHintCell();
+            if (cell == null) {
+                throw new IllegalArgumentException("La grille est déjà remplie");
+            }
+            row = cell[0];
+            col = cell[1];
+        }
+
+        BinairoPosition solution = cache.get(puzzle);
+        if (solution == null) {
+            solution = solver.solve(puzzle, GameSearch.FC,
+                budget(params, "maxNodes", maxNodes), budget(params, "timeoutMs", maxTimeMs)).getSolution();
+            if (solution != null) {
+                cache.put(puzzle, solution);
+            }
+        }
+
+        int value;
+        String source;
+        if (solution != null) {
+            value = solution.getValue(row, col);
+            source = "solution";
+        } else {
+            List<Integer> values = solver.orderValues(puzzle, row, col);
+            if (values.isEmpty()) {
+                throw new IllegalArgumentException("Aucune valeur possible pour cette case");
+            }
+            value = values.get(0);
+            source = "lcv";
+        }
+        return "{\"row\": " + row + ", \"col\": " + col + ", \"value\": " + value
+            + ", \"source\": \"" + source + "\"}";
+    }
+
+    /**
+     * Les validations simultanées passent par ValidationService: les grilles identiques
+     * sont calculées une seule fois et les autres par lots
+     */
+    private String validate(Map<String, String> params) {
+        BinairoPosition puzzle = gridParam(params);
+        ViolationMap violations = validation.validate(puzzle);
+        int size = puzzle.getSize();
+        StringBuilder json = new StringBuilder();
+        json.append("{\"valid\": ").append(violations.isValid())
+            .append(", \"complete\": ").append(puzzle.isComplete())
+            .append(", \"solution\": ").append(violations.isValid() && puzzle.isComplete())
+            .append(", \"violations\": [");
+        boolean first = true;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (puzzle.isEmpty(i, j) || !violations.hasViolation(i, j)) {
+                    continue;
+                }
+                List<String> messages = violations.getMessages(i, j);
+                json.append(first ? "" : ", ")
+                    .append("{\"row\": ").append(i).append(", \"col\": ").append(j).append(", \"rules\": [");
+                for (int k = 0; k < messages.size(); k++) {
+                    json.append(k > 0 ? ", " : "")
+                        .append('"').append(BinairoBenchmark.jsonEscape(messages.get(k))).append('"');
+                }
+                json.append("]}");
+                first = false;
+            }
+        }
+        return json.append("]}").toString();
+    }
+
+    private String generate(Map<String, String> params) {
+        int size = params.containsKey("size") ? intParam(params, "size") : 6;
+        if (size != 6 && size != 8 && size != 10) {
+            throw new IllegalArgumentException("Taille non supportée: " + size + " (6, 8 ou 10)");
+        }
+        int difficulty = params.containsKey("difficulty")
+            ? intParam(params, "difficulty") : BinairoGenerator.INTERMEDIATE;
+
+        Random random = ThreadLocalRandom.current();
+        BinairoPosition solved = BinairoGenerator.generateSolvedGrid(size, random);
+        if (solved == null) {
+            throw new IllegalStateException("Erreur lors de la génération");
+        }
+        BinairoPosition puzzle = BinairoGenerator.createPuzzle(solved, difficulty, random);
+        // Les requêtes /solve et /hint sur cette grille seront servies par le cache
+        cache.put(puzzle, solved);
+        return "{\"size\": " + size + ", \"difficulty\": " + difficulty
+            + ", \"grid\": \"" + puzzle.toLineString() + "\"}";
+    }
+
+    // ===== Paramètres =====
+
+    private static BinairoPosition gridParam(Map<String, String> params) {
+        String grid = params.get("grid");
+        if (grid == null) {
+            throw new IllegalArgumentException("Paramètre manquant: grid");
+        }
+        try {
+            return BinairoPosition.fromLineString(grid);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Grille invalide: " + e.getMessage());
+        }
+    }
+
+    private static int intParam(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Paramètre manquant: " + name);
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valeur invalide pour " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Budget demandé par le client, borné par la limite du serveur
+     */
+    private static int budget(Map<String, String> params, String name, int limit) {
+        return params.containsKey(name) ? Math.max(1, Math.min(intParam(params, name), limit)) : limit;
+    }
+
+    private static long budget(Map<String, String> params, String name, long limit) {
+        return params.containsKey(name) ? Math.max(1, Math.min(intParam(params, name), limit)) : limit;
+    }
+
+    // ===== HTTP =====
+
+    private interface Endpoint {
+        String handle(Map<String, String> params);
+    }
+
+    /**
+     * Adapte un point d'entrée: lecture des paramètres, réponse JSON, erreurs en 400/500
+     */
+    private static HttpHandler handler(Endpoint endpoint) {
+        return exchange -> {
+            try {
+                String requestMethod = exchange.getRequestMethod();
+                if (!requestMethod.equals("GET") && !requestMethod.equals("POST")) {
+                    exchange.getResponseHeaders().set("Allow", "GET, POST");
+                    sendError(exchange, 405, "Méthode non supportée: " + requestMethod);
+                    return;
+                }
+
+                Map<String, String> params;
+                try {
+                    params = readParams(exchange);
+                } catch (IllegalArgumentException e) {
+                    sendError(exchange, 400, e.getMessage());
+                    return;
+                }
+
+                String body;
+                try {
+                    body = endpoint.handle(params);
+                } catch (IllegalArgumentException e) {
+                    sendError(exchange, 400, e.getMessage());
+                    return;
+                } catch (RuntimeException e) {
+                    sendError(exchange, 500, "Erreur: " + e.getMessage());
+                    return;
+                }
+                send(exchange, 200, "application/json; charset=utf-8", body);
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    /**
+     * Paramètres de l'URL et, pour un POST, du corps (formulaire encodé)
+     */
+    private static Map<String, String> readParams(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+        if (exchange.getRequestMethod().equals("POST")) {
+            byte[] body = readBody(exchange.getRequestBody());
+            parseForm(new String(body, StandardCharsets.UTF_8), params);
+        }
+        return params;
+    }
+
+    private static byte[] readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            if (out.size() + n > MAX_BODY) {
+                throw new IllegalArgumentException("Requête trop grande");
+            }
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static void parseForm(String form, Map<String, String> params) throws UnsupportedEncodingException {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        for (String pair : form.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, "UTF-8").trim(), URLDecoder.decode(value, "UTF-8"));
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, "application/json; charset=utf-8",
+            "{\"error\": \"" + BinairoBenchmark.jsonEscape(String.valueOf(message)) + "\"}");
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
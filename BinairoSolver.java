@@ -0,0 +1,188 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Point d'entrée de résolution thread-safe, pour les appels répétés (serveur HTTP, mode lot)
+ *
+ * GameSearch garde l'état d'une recherche dans ses champs et ne peut servir qu'à un
+ * thread à la fois. Ici les moteurs sont empruntés à un réservoir par taille de grille
+ * et y sont rendus après chaque résolution, avec leurs grilles de travail: une
+ * résolution n'alloue plus de grilles en dehors de la solution retournée, même quand
+ * chaque requête s'exécute sur un nouveau thread (threads virtuels). Au plus
+ * MAX_IDLE_PER_SIZE moteurs inactifs sont gardés par taille
+ * La grille passée en paramètre n'est jamais modifiée
+ */
+public final class BinairoSolver {
+    private static final BinairoSolver DEFAULT = new BinairoSolver(null);
+    static final int MAX_IDLE_PER_SIZE = 64;
+
+    private final SearchMetrics metrics;
+    private final ConcurrentHashMap<Integer, Pool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * @param metrics compteurs partagés par toutes les résolutions (peut être null)
+     */
+    public BinairoSolver(SearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Instance partagée, sans métriques
+     */
+    public static BinairoSolver getDefault() {
+        return DEFAULT;
+    }
+
+    public SearchMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Résout avec la méthode donnée et les limites par défaut (50 000 nœuds, 30 secondes)
+     */
+    public Result solve(BinairoPosition puzzle, String method) {
+        return solve(puzzle, method, GameSearch.MAX_NODES, GameSearch.MAX_TIME_MS);
+    }
+
+    /**
+     * Résout avec la méthode donnée (GameSearch.BACKTRACKING, FC, AC3, AC4, SAC ou REGULAR)
+     * dans le budget indiqué
+     */
+    public Result solve(BinairoPosition puzzle, String method, int maxNodes, long maxTimeMs) {
+        if (!isMethod(method)) {
+            throw new IllegalArgumentException("Méthode inconnue: " + method);
+        }
+        GameSearch search = acquire(puzzle);
+        try {
+            search.setMetrics(metrics);
+            search.setLimits(maxNodes, maxTimeMs);
+            long start = System.nanoTime();
+            BinairoPosition solution = search.solve(method);
+            long elapsedNanos = System.nanoTime() - start;
+            if (solution != null && !solution.isSolution()) {
+                solution = null;
+            }
+            return new Result(method, solution, search.getNodesExplored(), elapsedNanos, search.isLimitReached());
+        } finally {
+            release(search);
+        }
+    }
+
+    /**
+     * Valeurs possibles pour une case, de la moins contraignante à la plus contraignante (LCV)
+     */
+    public List<Integer> orderValues(BinairoPosition position, int row, int col) {
+        GameSearch search = acquire(position);
+        try {
+            return search.selectValueLCV(search.getInitialPosition(), row, col);
+        } finally {
+            release(search);
+        }
+    }
+
+    /**
+     * Moteur préparé pour la grille, avec les limites par défaut, pour les appelants qui
+     * ont besoin du moteur lui-même (progression, annulation). Il appartient à l'appelant
+     * jusqu'à release: ne plus l'utiliser ni l'annuler ensuite
+     */
+    public GameSearch acquire(BinairoPosition puzzle) {
+        Pool pool = pools.computeIfAbsent(puzzle.getSize(), size -> new Pool());
+        GameSearch search = pool.engines.poll();
+        if (search == null) {
+            search = new GameSearch(puzzle);
+        } else {
+            pool.idle.decrementAndGet();
+            search.reset(puzzle);
+        }
+        search.setLimits(GameSearch.MAX_NODES, GameSearch.MAX_TIME_MS);
+        return search;
+    }
+
+    /**
+     * Rend un moteur obtenu par acquire; il est gardé pour une prochaine grille de même taille
+     * Les réglages de l'emprunteur sont remis à leurs valeurs par défaut, pour que le
+     * prochain appelant reçoive le même moteur qu'un new GameSearch
+     */
+    public void release(GameSearch search) {
+        search.setProgressListener(null, 0);
+        search.setMetrics(null);
+        search.setProbingDepth(0);
+        search.setTranspositionTable(null);
+        search.setCheckpoint(null, 0);
+        search.setTrace(SearchTrace.fromSystemProperties());
+        Pool pool = pools.computeIfAbsent(search.getInitialPosition().getSize(), size -> new Pool());
+        if (pool.idle.incrementAndGet() <= MAX_IDLE_PER_SIZE) {
+            pool.engines.offer(search);
+        } else {
+            pool.idle.decrementAndGet();
+        }
+    }
+
+    /**
+     * Moteurs inactifs d'une taille de grille
+     */
+    private static final class Pool {
+        final ConcurrentLinkedQueue<GameSearch> engines = new ConcurrentLinkedQueue<>();
+        final AtomicInteger idle = new AtomicInteger();
+    }
+
+    private static boolean isMethod(String method) {
+        return GameSearch.BACKTRACKING.equals(method) || GameSearch.FC.equals(method)
+            || GameSearch.AC3.equals(method) || GameSearch.AC4.equals(method) || GameSearch.SAC.equals(method)
+            || GameSearch.REGULAR.equals(method);
+    }
+
+    /**
+     * Résultat immuable d'une résolution
+     */
+    public static final class Result {
+        private final String method;
+        private final BinairoPosition solution;
+        private final int nodes;
+        private final long timeNanos;
+        private final boolean limitReached;
+
+        Result(String method, BinairoPosition solution, int nodes, long timeNanos, boolean limitReached) {
+            this.method = method;
+            this.solution = solution;
+            this.nodes = nodes;
+            this.timeNanos = timeNanos;
+            this.limitReached = limitReached;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        /**
+         * Solution trouvée (copie propre à l'appelant), ou null
+         */
+        public BinairoPosition getSolution() {
+            return solution;
+        }
+
+        public boolean isSolved() {
+            return solution != null;
+        }
+
+        public int getNodes() {
+            return nodes;
+        }
+
+        public long getTimeNanos() {
+            return timeNanos;
+        }
+
+        public long getTimeMs() {
+            return timeNanos / 1_000_000L;
+        }
+
+        /**
+         * Vrai si la recherche a été interrompue par la limite de nœuds ou de temps
+         */
+        public boolean isLimitReached() {
+            return limitReached;
+        }
+    }
+}
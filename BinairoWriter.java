@@ -0,0 +1,67 @@
+import java.io.*;
+
+/**
+ * Écriture en flux de grilles (et éventuellement de leurs solutions) au format
+ * lu par BinairoReader. Les grilles sont écrites directement dans un tampon,
+ * sans construire de chaîne intermédiaire
+ */
+public class BinairoWriter implements Closeable, Flushable {
+    private final Writer out;
+
+    public BinairoWriter(Writer out) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out, 1 << 16);
+    }
+
+    /**
+     * Ouvre le fichier en écriture; append = true ajoute les grilles à la fin du fichier existant
+     */
+    public BinairoWriter(File file, boolean append) throws IOException {
+        this(new FileWriter(file, append));
+    }
+
+    /**
+     * Écrit une grille, suivie d'une ligne vide
+     */
+    public void write(BinairoPosition puzzle) throws IOException {
+        writeGrid(puzzle, null);
+        out.write('\n');
+    }
+
+    /**
+     * Écrit une grille et sa solution (ignorée si null)
+     */
+    public void write(BinairoPosition puzzle, BinairoPosition solution) throws IOException {
+        writeGrid(puzzle, null);
+        if (solution != null) {
+            writeGrid(solution, BinairoReader.SOLUTION_TAG);
+        }
+        out.write('\n');
+    }
+
+    private void writeGrid(BinairoPosition pos, String tag) throws IOException {
+        int size = pos.getSize();
+        out.write(Integer.toString(size));
+        if (tag != null) {
+            out.write(' ');
+            out.write(tag);
+        }
+        out.write('\n');
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int value = pos.getValue(i, j);
+                out.write(value == -1 ? '-' : (char) ('0' + value));
+            }
+            out.write('\n');
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,511 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.io.*;
+
+/**
+ * Résolution parallèle d'une grille difficile par "cube and conquer"
+ *
+ * Découpage (cube): la grille est coupée en sous-grilles indépendantes ("cubes", la
+ * grille plus quelques cases fixées). À chaque coupe, une recherche en avant (lookahead)
+ * essaie les deux valeurs de chaque case vide et propage les règles 1 et 2 ligne par
+ * ligne (LineAutomaton): une valeur qui mène à une contradiction est écartée (l'autre
+ * est forcée), et la case choisie est celle dont les deux valeurs remplissent le plus
+ * de cases (produit des deux nombres, comme les solveurs SAT de type march). Le cube
+ * coupé est toujours le plus grand (le plus de cases vides), jusqu'à cubesPerThread
+ * cubes par thread
+ *
+ * Résolution (conquer): les cubes, du plus grand au plus petit, sont résolus par un
+ * pool de threads avec la méthode choisie. La première solution trouvée arrête toutes
+ * les recherches en cours (GameSearch.cancel) et les cubes restants
+ *
+ * Usage: java CubeSolver [--method BT|FC|AC3|AC4|SAC|REG] [--threads N] [--cubes-per-thread N]
+ *                        [--max-nodes N] [--timeout-ms N] < grilles.txt > solutions.txt
+ *    ou: java Binairo --cubes [options]
+ */
+public class CubeSolver {
+    public static final int DEFAULT_CUBES_PER_THREAD = 8;
+
+    private String method = GameSearch.FC;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int cubesPerThread = DEFAULT_CUBES_PER_THREAD;
+    private int maxNodesPerCube = Integer.MAX_VALUE;
+    private long maxTimeMs = GameSearch.MAX_TIME_MS;
+
+    public static void main(String[] args) {
+        CubeSolver solver = new CubeSolver();
+        try {
+            solver.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur: " + e.getMessage());
+            printUsage();
+            System.exit(1);
+            return;
+        }
+
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+            PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+            String line;
+            while ((line = in.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                BinairoPosition puzzle;
+                try {
+                    puzzle = BinairoPosition.fromLineString(trimmed);
+                } catch (IllegalArgumentException e) {
+                    out.println(BinairoBatch.ERROR + " " + e.getMessage());
+                    continue;
+                }
+                Result result;
+                try {
+                    result = solver.solve(puzzle);
+                } catch (RuntimeException e) {
+                    // Échec d'un cube (exception du moteur): seule cette grille est perdue
+                    out.println(BinairoBatch.ERROR + " " + e.getMessage());
+                    out.flush();
+                    System.err.println("✗ " + puzzle.getSize() + "x" + puzzle.getSize() + ": " + e.getMessage());
+                    continue;
+                }
+                out.println(result.isSolved() ? result.getSolution().toLineString() : BinairoBatch.FAILURE);
+                out.flush();
+                System.err.println((result.isSolved() ? "✓ " : "✗ ") + puzzle.getSize() + "x" + puzzle.getSize()
+                    + ": " + result.getCubes() + " cube(s), " + result.getRefutedCubes() + " écarté(s) au découpage, "
+                    + result.getNodes() + " nœuds, " + result.getTimeMs() + " ms"
+                    + (result.isLimitReached() ? " (limite atteinte)" : ""));
+            }
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Erreur: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: java CubeSolver [options] < grilles.txt > solutions.txt");
+        System.err.println("  --method BT|FC|AC3|AC4|SAC|REG  Méthode de résolution des cubes (défaut: FC)");
+        System.err.println("  --threads N             Nombre de threads de résolution (défaut: nombre de cœurs)");
+        System.err.println("  --cubes-per-thread N    Nombre de cubes visé par thread (défaut: " + DEFAULT_CUBES_PER_THREAD + ")");
+        System.err.println("  --max-nodes N           Nœuds maximum par cube (défaut: illimité)");
+        System.err.println("  --timeout-ms N          Temps maximal par grille (défaut: " + GameSearch.MAX_TIME_MS + ")");
+    }
+
+    void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Valeur manquante pour " + arg);
+            }
+            String value = args[++i];
+
+            switch (arg) {
+                case "--method":
+                    setMethod(BinairoBenchmark.parseMethod(value));
+                    break;
+                case "--threads":
+                    setThreads(Integer.parseInt(value));
+                    break;
+                case "--cubes-per-thread":
+                    setCubesPerThread(Integer.parseInt(value));
+                    break;
+                case "--max-nodes":
+                    setLimits(Integer.parseInt(value), maxTimeMs);
+                    break;
+                case "--timeout-ms":
+                    setLimits(maxNodesPerCube, Long.parseLong(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Option inconnue: " + arg);
+            }
+        }
+    }
+
+    /**
+     * Méthode de résolution des cubes (GameSearch.FC par défaut)
+     */
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Le nombre de threads doit être positif");
+        }
+        this.threads = threads;
+    }
+
+    public void setCubesPerThread(int cubesPerThread) {
+        if (cubesPerThread <= 0) {
+            throw new IllegalArgumentException("Le nombre de cubes par thread doit être positif");
+        }
+        this.cubesPerThread = cubesPerThread;
+    }
+
+    /**
+     * Budget: nœuds par cube et temps total par grille (découpage compris)
+     */
+    public void setLimits(int maxNodesPerCube, long maxTimeMs) {
+        if (maxNodesPerCube <= 0 || maxTimeMs <= 0) {
+            throw new IllegalArgumentException("Les limites doivent être positives");
+        }
+        this.maxNodesPerCube = maxNodesPerCube;
+        this.maxTimeMs = maxTimeMs;
+    }
+
+    /**
+     * Découpe la grille en cubes et les résout en parallèle
+     * La grille passée en paramètre n'est pas modifiée
+     */
+    public Result solve(BinairoPosition puzzle) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = System.currentTimeMillis() + maxTimeMs;
+        Splitter splitter = new Splitter(puzzle.getSize());
+        List<BinairoPosition> cubes = new ArrayList<>();
+        List<BinairoPosition> solved = new ArrayList<>();
+        splitter.split(puzzle, threads * cubesPerThread, false, cubes, solved);
+        if (!solved.isEmpty() || cubes.isEmpty()) {
+            BinairoPosition solution = solved.isEmpty() ? null : solved.get(0);
+            return new Result(solution, solved.isEmpty() ? cubes.size() : 0, splitter.getRefuted(), 0,
+                System.nanoTime() - start, false);
+        }
+
+        AtomicReference<BinairoPosition> found = new AtomicReference<>();
+        AtomicLong nodes = new AtomicLong();
+        AtomicBoolean limitHit = new AtomicBoolean();
+        Set<GameSearch> running = ConcurrentHashMap.newKeySet();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "binairo-cube");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorCompletionService<BinairoPosition> completion = new ExecutorCompletionService<>(pool);
+        try {
+            for (BinairoPosition cube : cubes) {
+                completion.submit(() -> {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (found.get() != null) {
+                        return null;
+                    }
+                    if (remaining <= 0) {
+                        limitHit.set(true);
+                        return null;
+                    }
+                    GameSearch search = new GameSearch(cube);
+                    search.setLimits(maxNodesPerCube, remaining);
+                    running.add(search);
+                    try {
+                        // Une solution a pu être trouvée entre le test et l'enregistrement
+                        if (found.get() != null) {
+                            search.cancel();
+                        }
+                        BinairoPosition result = search.solve(method);
+                        nodes.addAndGet(search.getNodesExplored());
+                        if (search.isLimitReached() && !search.isCancelled()) {
+                            limitHit.set(true);
+                        }
+                        return result != null && result.isSolution() ? result : null;
+                    } finally {
+                        running.remove(search);
+                    }
+                });
+            }
+
+            for (int i = 0; i < cubes.size(); i++) {
+                BinairoPosition result = valueOf(completion.take());
+                if (result != null) {
+                    found.set(result);
+                    for (GameSearch search : running) {
+                        search.cancel();
+                    }
+                    break;
+                }
+            }
+        } finally {
+            // Sur une exception, les cubes encore en cours sont arrêtés
+            for (GameSearch search : running) {
+                search.cancel();
+            }
+            pool.shutdownNow();
+        }
+
+        BinairoPosition result = found.get();
+        return new Result(result, cubes.size(), splitter.getRefuted(), nodes.get(), System.nanoTime() - start,
+            result == null && limitHit.get());
+    }
+
+    private static BinairoPosition valueOf(Future<BinairoPosition> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec de la résolution d'un cube: " + e.getCause(), e.getCause());
+        }
+    }
+
+    /**
+     * Découpage d'une grille en cubes par recherche en avant (aussi utilisé par BinairoCluster)
+     * Utilisé par un seul thread: les grilles et tampons de propagation sont réutilisés
+     */
+    static final class Splitter {
+        private final int size;
+        private final LineAutomaton automaton;
+        private final int[] lineValues;
+        private final int[] lineSupports;
+        private final boolean[] dirty;
+        private final int[] queue;
+        // Grilles d'essai des deux valeurs, et meilleures grilles filles trouvées
+        private final BinairoPosition[] trial = new BinairoPosition[2];
+        private final BinairoPosition[] best = new BinairoPosition[2];
+        private int refuted;
+
+        Splitter(int size) {
+            this.size = size;
+            this.automaton = new LineAutomaton(size);
+            this.lineValues = new int[size];
+            this.lineSupports = new int[size];
+            this.dirty = new boolean[2 * size];
+            this.queue = new int[2 * size];
+            for (int v = 0; v <= 1; v++) {
+                trial[v] = new BinairoPosition(size);
+                best[v] = new BinairoPosition(size);
+            }
+        }
+
+        /**
+         * Nombre de cubes écartés par les découpages de cette instance
+         */
+        int getRefuted() {
+            return refuted;
+        }
+
+        /**
+         * Découpe puzzle en au plus target cubes (ajoutés à cubes, du plus grand au plus petit)
+         * Les grilles résolues par le découpage lui-même sont ajoutées à solutions: avec all,
+         * le découpage continue et cubes et solutions couvrent alors chaque solution de la
+         * grille exactement une fois (énumération); sinon il s'arrête à la première
+         * Les deux listes restent vides si la grille n'a pas de solution
+         */
+        void split(BinairoPosition puzzle, int target, boolean all,
+                   List<BinairoPosition> cubes, List<BinairoPosition> solutions) {
+            BinairoPosition root = new BinairoPosition(puzzle);
+            if (!puzzle.isValid() || propagate(root, -1, -1) < 0) {
+                return;
+            }
+            if (root.isComplete()) {
+                // propagate vérifie les trois règles: une grille complète est une solution
+                solutions.add(root);
+                return;
+            }
+
+            // Le plus grand cube (le plus de cases vides) est coupé en premier
+            PriorityQueue<BinairoPosition> open = new PriorityQueue<>(
+                Comparator.comparingInt((BinairoPosition p) -> p.getEmptyPositions().size()).reversed());
+            open.add(root);
+            while (!open.isEmpty() && open.size() < target) {
+                BinairoPosition cube = open.poll();
+                int[] cell = lookahead(cube);
+                if (cell == null) {
+                    // Les deux valeurs d'une case mènent à une contradiction
+                    refuted++;
+                    continue;
+                }
+                if (cube.isComplete()) {
+                    // Les valeurs forcées ont rempli la grille
+                    solutions.add(cube);
+                    if (!all) {
+                        return;
+                    }
+                    continue;
+                }
+                for (int v = 0; v <= 1; v++) {
+                    BinairoPosition child = new BinairoPosition(best[v]);
+                    if (!child.isComplete()) {
+                        open.add(child);
+                        continue;
+                    }
+                    solutions.add(child);
+                    if (!all) {
+                        return;
+                    }
+                }
+            }
+            while (!open.isEmpty()) {
+                cubes.add(open.poll());
+            }
+        }
+
+        /**
+         * Recherche en avant sur le cube: fixe les valeurs forcées (l'autre valeur mène à
+         * une contradiction) puis choisit la case de coupe, dont les deux grilles filles
+         * propagées sont laissées dans best[0] et best[1]
+         * Retourne la case choisie, {-1, -1} si les valeurs forcées ont rempli la grille,
+         * ou null si le cube n'a pas de solution
+         */
+        private int[] lookahead(BinairoPosition cube) {
+            boolean changed = true;
+            int[] chosen = null;
+            while (changed) {
+                changed = false;
+                chosen = null;
+                long bestScore = -1;
+                for (int[] cell : cube.getEmptyPositions()) {
+                    int row = cell[0];
+                    int col = cell[1];
+                    if (!cube.isEmpty(row, col)) {
+                        continue;
+                    }
+                    int[] filled = new int[2];
+                    for (int v = 0; v <= 1; v++) {
+                        trial[v].copyFrom(cube);
+                        trial[v].setValue(row, col, v);
+                        filled[v] = propagate(trial[v], row, col);
+                    }
+                    if (filled[0] < 0 && filled[1] < 0) {
+                        return null;
+                    }
+                    if (filled[0] < 0 || filled[1] < 0) {
+                        // Valeur forcée: le cube est remplacé par sa grille propagée
+                        cube.copyFrom(trial[filled[0] < 0 ? 1 : 0]);
+                        changed = true;
+                        continue;
+                    }
+                    long score = (long) (filled[0] + 1) * (filled[1] + 1);
+                    if (score > bestScore) {
+                        bestScore = score;
+                        chosen = cell;
+                        best[0].copyFrom(trial[0]);
+                        best[1].copyFrom(trial[1]);
+                    }
+                }
+                // Après une valeur forcée, les scores déjà calculés ne valent plus: on recommence
+                if (changed && cube.isComplete()) {
+                    return new int[]{-1, -1};
+                }
+            }
+            return chosen != null ? chosen : new int[]{-1, -1};
+        }
+
+        /**
+         * Propage les règles 1 et 2 depuis la ligne row et la colonne col (toutes si row
+         * vaut -1): les cases qui n'ont plus qu'une valeur possible sur leur ligne sont
+         * remplies, jusqu'au point fixe. La règle 3 est vérifiée à la fin
+         * Retourne le nombre de cases remplies, ou -1 en cas de contradiction
+         */
+        private int propagate(BinairoPosition position, int row, int col) {
+            Arrays.fill(dirty, false);
+            int head = 0;
+            int queued = 0;
+            for (int line = 0; line < 2 * size; line++) {
+                if (row < 0 || line == row || line == size + col) {
+                    dirty[line] = true;
+                    queue[(head + queued++) % (2 * size)] = line;
+                }
+            }
+
+            int filled = 0;
+            while (queued > 0) {
+                int line = queue[head];
+                head = (head + 1) % (2 * size);
+                queued--;
+                dirty[line] = false;
+                boolean isRow = line < size;
+                int index = isRow ? line : line - size;
+                for (int k = 0; k < size; k++) {
+                    lineValues[k] = isRow ? position.getValue(index, k) : position.getValue(k, index);
+                }
+                if (!automaton.filter(lineValues, lineSupports)) {
+                    return -1;
+                }
+                for (int k = 0; k < size; k++) {
+                    int support = lineSupports[k];
+                    if (lineValues[k] != -1 || support == 3) {
+                        continue;
+                    }
+                    if (support == 0) {
+                        return -1;
+                    }
+                    int r = isRow ? index : k;
+                    int c = isRow ? k : index;
+                    position.setValue(r, c, support == 1 ? 0 : 1);
+                    filled++;
+                    int crossing = isRow ? size + c : r;
+                    if (!dirty[crossing]) {
+                        dirty[crossing] = true;
+                        queue[(head + queued++) % (2 * size)] = crossing;
+                    }
+                }
+            }
+            return position.isValid() ? filled : -1;
+        }
+    }
+
+    /**
+     * Résultat d'une résolution par cubes
+     */
+    public static final class Result {
+        private final BinairoPosition solution;
+        private final int cubes;
+        private final int refutedCubes;
+        private final long nodes;
+        private final long timeNanos;
+        private final boolean limitReached;
+
+        Result(BinairoPosition solution, int cubes, int refutedCubes, long nodes, long timeNanos, boolean limitReached) {
+            this.solution = solution;
+            this.cubes = cubes;
+            this.refutedCubes = refutedCubes;
+            this.nodes = nodes;
+            this.timeNanos = timeNanos;
+            this.limitReached = limitReached;
+        }
+
+        /**
+         * Solution trouvée, ou null
+         */
+        public BinairoPosition getSolution() {
+            return solution;
+        }
+
+        public boolean isSolved() {
+            return solution != null;
+        }
+
+        /**
+         * Nombre de cubes distribués aux threads
+         */
+        public int getCubes() {
+            return cubes;
+        }
+
+        /**
+         * Nombre de cubes écartés dès le découpage (contradiction trouvée par la recherche en avant)
+         */
+        public int getRefutedCubes() {
+            return refutedCubes;
+        }
+
+        /**
+         * Nœuds explorés par les recherches de tous les cubes
+         */
+        public long getNodes() {
+            return nodes;
+        }
+
+        public long getTimeMs() {
+            return timeNanos / 1_000_000L;
+        }
+
+        /**
+         * Vrai si aucune solution n'a été trouvée et qu'un cube a été interrompu par une limite:
+         * la grille peut quand même avoir une solution
+         */
+        public boolean isLimitReached() {
+            return limitReached;
+        }
+    }
+}
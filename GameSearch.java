@@ -1,4 +1,7 @@
 import java.util.*;
+import java.util.concurrent.*;
+import java.io.*;
+import java.nio.file.*;
 
 /**
  * Implémente les algorithmes de recherche avec satisfaction de contraintes
@@ -9,32 +12,307 @@ public class GameSearch {
     private int nodesExplored;
     private long startTime;
     private long endTime;
+    private long startNanos;
     private String methodUsed;
+    private SearchMetrics metrics;
+    private SearchTrace trace;
+    private int depth;
+    private boolean limitReached;
     
     // Limites pour éviter OutOfMemoryError
-    private static final int MAX_NODES = 50000; 
-    private static final long MAX_TIME_MS = 30000; 
+    static final int MAX_NODES = 50000; 
+    static final long MAX_TIME_MS = 30000; 
+    
+    // Limites de cette instance (MAX_NODES et MAX_TIME_MS par défaut)
+    private int maxNodes = MAX_NODES;
+    private long maxTimeMs = MAX_TIME_MS;
+    
+    private ProgressListener progressListener;
+    private long progressIntervalNanos;
+    private long nextProgressNanos;
+    private volatile boolean cancelled;
+    
+    // Grilles de travail réutilisées d'une recherche à l'autre: stack[d] est la grille
+    // du nœud de profondeur d (dimensionné selon la taille de la grille)
+    private BinairoPosition[] stack;
+    
+    // Pile des décisions de search(), par profondeur: case choisie, valeurs ordonnées
+    // (deux par niveau dans frameValues), nombre de valeurs et prochaine valeur à essayer
+    private int[] frameRow;
+    private int[] frameCol;
+    private int[] frameValues;
+    private int[] frameCount;
+    private int[] frameNext;
+    
+    // Forward checking incrémental, par niveau: domaine de chaque case (bit 0: la valeur 0
+    // est possible, bit 1: la valeur 1; 0 pour une case remplie), nombre de cases vides
+    // sans valeur possible, et nombre de 0 et de 1 de chaque ligne puis de chaque colonne
+    private byte[][] domains;
+    private int[] wipeouts;
+    private int[][] lineCounts;
+    
+    // SAC: profondeur maximale du sondage (0 = racine seulement), et dernier numéro de
+    // déduction auquel chaque littéral (case, valeur) a été sondé avec succès
+    private int probingDepth;
+    private int[] probedAt;
+    
+    // Regular: automate des lignes et tampons de propagation (lignes puis colonnes)
+    private LineAutomaton automaton;
+    private int[] lineValues;
+    private int[] lineSupports;
+    private boolean[] dirtyLines;
+    private int[] lineQueue;
+    
+    // Table de transposition des grilles déjà prouvées sans solution (aucune par défaut,
+    // voir setTranspositionTable), gardée d'une recherche à l'autre tant que la méthode
+    // et la taille ne changent pas; par niveau,
+    // hachage de la grille à l'entrée du nœud et solutions trouvées avant d'y entrer
+    // (-1 pour un niveau reconstruit par une reprise: son échec n'est pas enregistré)
+    private TranspositionTable failures;
+    private String failuresMethod;
+    private int failuresSize;
+    private long transpositionHits;
+    private long[] frameHash;
+    private long[] frameSolutions;
+    
+    // Résolution parallèle (solveParallel): nogoods partagés entre les moteurs, tirage
+    // de l'ordre des valeurs (null pour le premier moteur: ordre LCV), et moteurs en cours
+    // Par niveau, ensemble de conflit du nœud: bit b si la décision du niveau b fait partie
+    // de la raison de l'échec de ses fils. Sans explication des échecs (méthodes qui
+    // remplissent des cases par propagation), la raison est toujours le chemin complet
+    private NogoodStore nogoods;
+    private int[] nogoodBuffer;
+    private boolean explainFailures;
+    private long[][] conflicts;
+    private long[] cause;
+    private Random diversity;
+    private volatile List<GameSearch> parallelWorkers;
+    private long nogoodHits;
+    
+    // Énumération des solutions (enumerateSolutions)
+    private boolean enumerating;
+    private SolutionListener solutionListener;
+    private long solutionsFound;
+    
+    // Points de reprise: fichier écrit pendant la recherche, et point chargé par
+    // fromCheckpoint en attente de reprise
+    private Path checkpointFile;
+    private long checkpointIntervalNanos;
+    private long nextCheckpointNanos;
+    private SearchCheckpoint pending;
+    private long previousNodes;
+    private long previousTimeMs;
     
     // Constantes pour les méthodes de résolution
     public static final String BACKTRACKING = "Backtracking";
     public static final String FC = "Forward Checking";
     public static final String AC3 = "AC-3";
     public static final String AC4 = "AC-4";
+    public static final String SAC = "SAC";
+    public static final String REGULAR = "Regular";
+    
+    // Résultat de checkPosition
+    private static final int OPEN = 0;
+    private static final int SOLVED = 1;
+    private static final int INVALID = 2;
     
     public GameSearch(BinairoPosition position) {
         this.initialPosition = new BinairoPosition(position);
         this.nodesExplored = 0;
+        this.trace = SearchTrace.fromSystemProperties();
     }
     
     /**
-     * Résout la grille avec backtracking simple
+     * Prépare l'instance pour une nouvelle grille, en réutilisant ses grilles de travail
+     * si la taille ne change pas (utilisé par BinairoSolver)
      */
-    public BinairoPosition solveBacktracking() {
-        methodUsed = BACKTRACKING;
+    void reset(BinairoPosition position) {
+        if (position.getSize() == initialPosition.getSize()) {
+            initialPosition.copyFrom(position);
+        } else {
+            initialPosition = new BinairoPosition(position);
+            stack = null;
+        }
+        cancelled = false;
+        limitReached = false;
+        pending = null;
+    }
+    
+    /**
+     * Copie interne de la grille à résoudre, sans nouvelle copie
+     */
+    BinairoPosition getInitialPosition() {
+        return initialPosition;
+    }
+    
+    /**
+     * Active la collecte de métriques (null pour la désactiver)
+     * L'instance peut être partagée entre plusieurs recherches
+     */
+    public void setMetrics(SearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    public SearchMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Fixe le budget de la recherche: nombre de nœuds et temps maximal en millisecondes
+     * Par défaut MAX_NODES et MAX_TIME_MS
+     */
+    public void setLimits(int maxNodes, long maxTimeMs) {
+        if (maxNodes <= 0 || maxTimeMs <= 0) {
+            throw new IllegalArgumentException("Les limites doivent être positives");
+        }
+        this.maxNodes = maxNodes;
+        this.maxTimeMs = maxTimeMs;
+    }
+    
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+    
+    public long getMaxTimeMs() {
+        return maxTimeMs;
+    }
+    
+    /**
+     * Reçoit régulièrement l'état de la recherche en cours
+     * Appelé dans le thread de la recherche, qui attend le retour: l'implémentation doit
+     * être rapide et ne pas bloquer (par exemple SwingWorker.publish)
+     */
+    public interface ProgressListener {
+        void onProgress(BinairoPosition partial, int nodes, int depth);
+    }
+    
+    /**
+     * Active les notifications de progression, au plus une toutes les intervalMs
+     * millisecondes (null pour les désactiver). La grille transmise est une copie
+     */
+    public void setProgressListener(ProgressListener listener, long intervalMs) {
+        this.progressListener = listener;
+        this.progressIntervalNanos = intervalMs * 1_000_000L;
+        this.nextProgressNanos = 0;
+    }
+    
+    /**
+     * Active la trace des décisions, propagations et retours arrière (null pour la désactiver)
+     * Par défaut, une trace est créée si la propriété -Dbinairo.trace=<capacité> est définie
+     */
+    public void setTrace(SearchTrace trace) {
+        this.trace = trace;
+    }
+    
+    public SearchTrace getTrace() {
+        return trace;
+    }
+    
+    /**
+     * Reçoit chaque solution trouvée par enumerateSolutions
+     * La grille transmise est une copie; index commence à 1
+     */
+    public interface SolutionListener {
+        void onSolution(BinairoPosition solution, long index);
+    }
+    
+    /**
+     * Énumère toutes les solutions avec la méthode indiquée, dans les limites de l'instance
+     * Retourne le nombre de solutions trouvées (toutes sessions confondues après une reprise);
+     * si isLimitReached() est vrai, l'énumération est incomplète
+     * listener peut être null pour seulement compter
+     * Le décompte est exact avec BACKTRACKING, FC et AC3; la vérification d'AC-4 peut
+     * écarter des grilles valides
+     */
+    public long enumerateSolutions(String method, SolutionListener listener) {
+        enumerating = true;
+        solutionListener = listener;
+        try {
+            solve(method);
+        } finally {
+            enumerating = false;
+            solutionListener = null;
+        }
+        return solutionsFound;
+    }
+    
+    /**
+     * Écrit régulièrement un point de reprise dans file, au plus un toutes les intervalMs
+     * millisecondes (null pour désactiver). Le point de reprise est aussi écrit quand la
+     * recherche s'arrête sur une limite ou une annulation, et à la fin de la recherche
+     * Avec un point de reprise, la recherche s'arrête dès la limite atteinte, sans essayer
+     * les valeurs restantes
+     */
+    public void setCheckpoint(Path file, long intervalMs) {
+        this.checkpointFile = file;
+        this.checkpointIntervalNanos = intervalMs * 1_000_000L;
+        this.nextCheckpointNanos = System.nanoTime() + checkpointIntervalNanos;
+    }
+    
+    /**
+     * Recrée une recherche à partir d'un point de reprise
+     * L'appel suivant à solve ou enumerateSolutions, avec la méthode enregistrée
+     * (getResumeMethod), reprend là où la recherche s'était arrêtée. Les limites de
+     * nœuds et de temps s'appliquent à chaque session
+     */
+    public static GameSearch fromCheckpoint(Path file) throws IOException {
+        SearchCheckpoint checkpoint = SearchCheckpoint.read(file);
+        GameSearch search = new GameSearch(checkpoint.getPuzzle());
+        search.pending = checkpoint;
+        search.probingDepth = checkpoint.getProbingDepth();
+        return search;
+    }
+    
+    /**
+     * Méthode du point de reprise en attente, ou null
+     */
+    public String getResumeMethod() {
+        return pending == null ? null : pending.getMethod();
+    }
+    
+    /**
+     * Initialise une recherche avec la méthode donnée, en reprenant les compteurs
+     * du point de reprise en attente s'il y en a un
+     */
+    private void begin(String method) {
+        if (pending != null && (!pending.getMethod().equals(method) || pending.isEnumeration() != enumerating)) {
+            throw new IllegalStateException("Le point de reprise concerne "
+                + (pending.isEnumeration() ? "une énumération" : "une résolution")
+                + " avec " + pending.getMethod());
+        }
+        if (pending != null && pending.getProbingDepth() != probingDepth) {
+            throw new IllegalStateException("Le point de reprise a été créé avec une profondeur de sondage de "
+                + pending.getProbingDepth());
+        }
+        methodUsed = method;
         startTime = System.currentTimeMillis();
+        startNanos = System.nanoTime();
         nodesExplored = 0;
-        BinairoPosition result = backtracking(new BinairoPosition(initialPosition));
+        depth = 0;
+        limitReached = false;
+        previousNodes = pending == null ? 0 : pending.getNodes();
+        previousTimeMs = pending == null ? 0 : pending.getTimeMs();
+        solutionsFound = pending == null ? 0 : pending.getSolutions();
+        transpositionHits = 0;
+        if (failures != null) {
+            int size = initialPosition.getSize();
+            if (failuresMethod != null && (!method.equals(failuresMethod) || size != failuresSize)) {
+                // Un échec ne vaut que pour la méthode qui l'a prouvé (AC-4 est plus strict)
+                failures.clear();
+            }
+            failuresMethod = method;
+            failuresSize = size;
+        }
+    }
+    
+    /**
+     * Résout la grille avec backtracking simple
+     */
+    public BinairoPosition solveBacktracking() {
+        begin(BACKTRACKING);
+        BinairoPosition result = detach(search(root()));
         endTime = System.currentTimeMillis();
+        recordSolve(result);
         return result;
     }
     
@@ -42,11 +320,10 @@ public class GameSearch {
      * Résout avec Forward Checking
      */
     public BinairoPosition solveForwardChecking() {
-        methodUsed = FC;
-        startTime = System.currentTimeMillis();
-        nodesExplored = 0;
-        BinairoPosition result = forwardChecking(new BinairoPosition(initialPosition));
+        begin(FC);
+        BinairoPosition result = detach(search(root()));
         endTime = System.currentTimeMillis();
+        recordSolve(result);
         return result;
     }
     
@@ -54,16 +331,18 @@ public class GameSearch {
      * Résout avec AC-3
      */
     public BinairoPosition solveAC3() {
-        methodUsed = AC3;
-        startTime = System.currentTimeMillis();
-        nodesExplored = 0;
+        begin(AC3);
         // Appliquer AC-3 complet au début pour réduire les domaines
-        BinairoPosition startPos = new BinairoPosition(initialPosition);
-        if (!ac3(startPos)) {
+        BinairoPosition startPos = root();
+        long propagationStart = phaseStart();
+        if (!recordPropagation(ac3(startPos), propagationStart)) {
+            endTime = System.currentTimeMillis();
+            recordSolve(null);
             return null; // Pas de solution si AC-3 échoue au début
         }
-        BinairoPosition result = ac3Search(startPos);
+        BinairoPosition result = detach(search(startPos));
         endTime = System.currentTimeMillis();
+        recordSolve(result);
         return result;
     }
     
@@ -71,195 +350,1149 @@ public class GameSearch {
      * Résout avec AC-4
      */
     public BinairoPosition solveAC4() {
-        methodUsed = AC4;
-        startTime = System.currentTimeMillis();
-        nodesExplored = 0;
+        begin(AC4);
         // Appliquer AC-3 complet au début (AC-4 utilise AC-3 comme base)
-        BinairoPosition startPos = new BinairoPosition(initialPosition);
-        if (!ac3(startPos)) {
+        BinairoPosition startPos = root();
+        long propagationStart = phaseStart();
+        if (!recordPropagation(ac3(startPos), propagationStart)) {
+            endTime = System.currentTimeMillis();
+            recordSolve(null);
             return null;
         }
-        BinairoPosition result = ac4Search(startPos);
+        BinairoPosition result = detach(search(startPos));
         endTime = System.currentTimeMillis();
+        recordSolve(result);
         return result;
     }
     
     /**
-     * Backtracking simple avec heuristiques MVR et LCV
+     * Résout avec Forward Checking renforcé par un sondage (SAC, singleton arc consistency):
+     * aux nœuds de profondeur au plus getProbingDepth(), chaque valeur de chaque case vide
+     * est essayée et propagée; une valeur qui mène à un domaine vide est écartée et la case
+     * reçoit l'autre valeur. Les grilles difficiles se résolvent ainsi par déductions
+     * polynomiales plutôt que par des branchements profonds
      */
-    private BinairoPosition backtracking(BinairoPosition position) {
-        nodesExplored++;
-        
-        if (nodesExplored > MAX_NODES) {
-            return null;
+    public BinairoPosition solveSAC() {
+        begin(SAC);
+        BinairoPosition result = detach(search(root()));
+        endTime = System.currentTimeMillis();
+        recordSolve(result);
+        return result;
+    }
+    
+    /**
+     * Résout avec Forward Checking et la contrainte regular sur chaque ligne et colonne:
+     * à chaque nœud, LineAutomaton filtre les lignes touchées jusqu'au point fixe, et les
+     * cases qui n'ont plus qu'une valeur compatible avec les règles 1 et 2 sur leur ligne
+     * et leur colonne sont remplies
+     */
+    public BinairoPosition solveRegular() {
+        begin(REGULAR);
+        BinairoPosition result = detach(search(root()));
+        endTime = System.currentTimeMillis();
+        recordSolve(result);
+        return result;
+    }
+    
+    /**
+     * Résout avec la méthode donnée sur plusieurs threads qui partagent leurs nogoods
+     *
+     * Chaque thread a son propre moteur sur la même grille; le premier suit l'ordre LCV,
+     * les autres tirent au hasard l'ordre des deux valeurs de chaque case, pour explorer
+     * l'arbre dans un autre ordre. Avec BT et FC, chaque échec est expliqué par les
+     * décisions qui enfreignent une règle (ensemble de conflit), ce qui permet de remonter
+     * directement à la dernière décision en cause; les autres méthodes prennent le chemin
+     * complet comme explication. Quand un sous-arbre est épuisé sans solution et que son
+     * ensemble de conflit compte au plus NogoodStore.DEFAULT_MAX_LENGTH décisions, il est
+     * publié dans un NogoodStore commun, et les autres moteurs coupent toute branche qui
+     * les contient toutes, au lieu de redécouvrir le même échec
+     * La première solution arrête les autres moteurs, comme la preuve qu'il n'y en a pas
+     * Les limites de nœuds et de temps s'appliquent à chaque moteur; getNodesExplored()
+     * retourne le total. Pas de point de reprise dans ce mode
+     */
+    public BinairoPosition solveParallel(String method, int threads) {
+        if (threads <= 1) {
+            return solve(method);
         }
-        
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - startTime > MAX_TIME_MS) {
-            return null;
+        methodUsed = method;
+        startTime = System.currentTimeMillis();
+        startNanos = System.nanoTime();
+        cancelled = false;
+        
+        int size = initialPosition.getSize();
+        NogoodStore store = new NogoodStore(size, NogoodStore.DEFAULT_MAX_LENGTH);
+        List<GameSearch> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            GameSearch worker = new GameSearch(initialPosition);
+            worker.setLimits(maxNodes, maxTimeMs);
+            worker.setProbingDepth(probingDepth);
+            worker.nogoods = store;
+            worker.nogoodBuffer = new int[store.getMaxLength()];
+            worker.explainFailures = FC.equals(method) || BACKTRACKING.equals(method);
+            worker.diversity = i == 0 ? null : new Random(i);
+            workers.add(worker);
         }
-        
-        if (position.isSolution()) {
-            return position;
+        parallelWorkers = workers;
+        
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "binairo-parallel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorCompletionService<BinairoPosition> completion = new ExecutorCompletionService<>(pool);
+        Map<Future<BinairoPosition>, GameSearch> owners = new HashMap<>();
+        BinairoPosition result = null;
+        boolean refuted = false;
+        try {
+            for (GameSearch worker : workers) {
+                owners.put(completion.submit(() -> worker.solve(method)), worker);
+            }
+            for (int i = 0; i < threads; i++) {
+                Future<BinairoPosition> done = completion.take();
+                result = done.get();
+                if (result != null) {
+                    break;
+                }
+                if (!owners.get(done).isLimitReached()) {
+                    // Recherche complète sans solution: inutile d'attendre les autres
+                    refuted = true;
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec d'un thread de résolution", e.getCause());
+        } finally {
+            for (GameSearch worker : workers) {
+                worker.cancel();
+            }
+            pool.shutdownNow();
+            parallelWorkers = null;
         }
         
-        if (!position.isValid()) {
-            return null;
+        nodesExplored = 0;
+        for (GameSearch worker : workers) {
+            nodesExplored += worker.getNodesExplored();
         }
-        
-        List<int[]> emptyPositions = position.getEmptyPositions();
-        if (emptyPositions.isEmpty()) {
-            return null;
+        limitReached = result == null && !refuted;
+        nogoodHits = store.getHits();
+        endTime = System.currentTimeMillis();
+        recordSolve(result);
+        return result;
+    }
+    
+    /**
+     * Nombre de branches coupées par les nogoods partagés lors du dernier solveParallel
+     */
+    public long getNogoodHits() {
+        return nogoodHits;
+    }
+    
+    /**
+     * Profondeur maximale des nœuds sondés par SAC (0 par défaut: la racine seulement)
+     */
+    public void setProbingDepth(int probingDepth) {
+        if (probingDepth < 0) {
+            throw new IllegalArgumentException("La profondeur de sondage doit être positive");
+        }
+        this.probingDepth = probingDepth;
+    }
+    
+    public int getProbingDepth() {
+        return probingDepth;
+    }
+    
+    /**
+     * Table de transposition des sous-problèmes sans solution (null, par défaut, pour n'en
+     * utiliser aucune: la table n'est utile que si le moteur résout plusieurs fois des
+     * grilles voisines). Une table partagée ne doit servir qu'à des moteurs de même
+     * méthode et de même taille de grille; le moteur la vide quand sa propre méthode ou
+     * sa taille change d'une recherche à l'autre
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.failures = table;
+        this.failuresMethod = null;
+    }
+    
+    /**
+     * Nombre de nœuds de la dernière recherche coupés par la table de transposition
+     */
+    public long getTranspositionHits() {
+        return transpositionHits;
+    }
+    
+    /**
+     * Résout avec la méthode indiquée (BACKTRACKING, FC, AC3, AC4, SAC ou REGULAR)
+     * Retourne null si la méthode est inconnue
+     */
+    public BinairoPosition solve(String method) {
+        switch (method) {
+            case BACKTRACKING:
+                return solveBacktracking();
+            case FC:
+                return solveForwardChecking();
+            case AC3:
+                return solveAC3();
+            case AC4:
+                return solveAC4();
+            case SAC:
+                return solveSAC();
+            case REGULAR:
+                return solveRegular();
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Recherche en profondeur itérative, commune aux six méthodes
+     * Heuristiques MVR et LCV; FC vérifie chaque fils avant d'y descendre, AC-3 et AC-4
+     * propagent à chaque nœud (ac3LocalImproved, ac4Check), SAC sonde chaque valeur restante
+     * (probe) et Regular filtre les lignes et colonnes touchées par l'automate (propagateLines)
+     *
+     * La pile des décisions est explicite (tableaux d'entiers indexés par profondeur) au lieu
+     * de la récursion: la profondeur n'est plus limitée par la pile du thread, ce qui évite
+     * StackOverflowError sur les grandes grilles et permet d'utiliser des threads à petite pile
+     * L'ordre d'exploration et le nombre de nœuds sont ceux de la version récursive
+     */
+    private BinairoPosition search(BinairoPosition root) {
+        int level;
+        if (pending != null) {
+            SearchCheckpoint checkpoint = pending;
+            pending = null;
+            if (checkpoint.isFinished()) {
+                return checkpoint.getSolution();
+            }
+            level = restore(checkpoint);
+        } else {
+            int status = expand(root);
+            if (status == SOLVED) {
+                if (solutionFound(root)) {
+                    return root;
+                }
+                // Énumération d'une grille déjà complète: sa seule solution est comptée
+                finish(null);
+                return null;
+            }
+            if (status == INVALID) {
+                finish(null);
+                return null;
+            }
+            level = 0;
         }
         
-        int[] nextVar = selectVariableMVR(position, emptyPositions);
-        int row = nextVar[0];
-        int col = nextVar[1];
-        
-        List<Integer> values = selectValueLCV(position, row, col);
-        
-        for (int value : values) {
-            BinairoPosition newPosition = new BinairoPosition(position);
+        boolean checkForward = usesDomains();
+        boolean stopAtLimit = enumerating || checkpointFile != null;
+        while (level >= 0) {
+            if (checkpointFile != null) {
+                checkpointIfDue(level);
+            }
+            if (frameNext[level] == frameCount[level]) {
+                // Toutes les valeurs ont échoué: retour arrière
+                recordBacktrack(frameRow[level], frameCol[level]);
+                recordFailure(level);
+                if (nogoods != null && level > 0) {
+                    childFailed(level - 1, conflicts[level]);
+                }
+                level--;
+                depth = level;
+                continue;
+            }
+            
+            int row = frameRow[level];
+            int col = frameCol[level];
+            int value = frameValues[2 * level + frameNext[level]++];
+            BinairoPosition newPosition = child(stack[level]);
             newPosition.setValue(row, col, value);
+            trace(SearchTrace.DECISION, row, col, value);
+            
+            if (nogoods != null) {
+                if (nogoods.isRefuted()) {
+                    // Un autre moteur a prouvé que la grille n'a pas de solution
+                    continue;
+                }
+                int[] nogood = nogoods.violatedBy(newPosition, row, col, value);
+                if (nogood != null) {
+                    // Un moteur a déjà prouvé ces décisions sans solution
+                    childFailed(level, nogoodCause(level, nogood));
+                    continue;
+                }
+            }
             
-            BinairoPosition result = backtracking(newPosition);
-            if (result != null) {
-                return result;
+            if (checkForward) {
+                // Forward checking: détecte si une variable non assignée n'a plus de valeurs possibles
+                long propagationStart = phaseStart();
+                if (!recordPropagation(forwardCheck(level, row, col, value), propagationStart)) {
+                    if (nogoods != null) {
+                        childFailed(level, wipeoutCause(level));
+                    }
+                    continue;
+                }
+            }
+            
+            depth = level + 1;
+            int status = expand(newPosition);
+            if (status == SOLVED) {
+                if (solutionFound(newPosition)) {
+                    return newPosition;
+                }
+                depth = level;
+            } else if (status == OPEN) {
+                level++;
+            } else {
+                depth = level;
+                if (limitReached && stopAtLimit) {
+                    if (checkpointFile != null) {
+                        // Le fils interrompu par la limite sera exploré (et compté) à la reprise
+                        frameNext[level]--;
+                        nodesExplored--;
+                        saveCheckpoint(level, false, null);
+                    }
+                    return null;
+                }
+                if (nogoods != null) {
+                    childFailed(level, pathCause(level));
+                }
             }
         }
-        
+        finish(null);
         return null;
     }
     
     /**
-     * Forward Checking avec détection précoce des dead ends
+     * Le sous-arbre du niveau est épuisé: si aucune limite ne l'a coupé et qu'il ne
+     * contenait pas de solution, sa grille d'entrée est enregistrée comme insoluble,
+     * et les décisions de son ensemble de conflit comme nogood si elles sont assez peu
+     * nombreuses
+     */
+    private void recordFailure(int level) {
+        if (limitReached || frameSolutions[level] != solutionsFound) {
+            return;
+        }
+        if (failures != null) {
+            failures.add(frameHash[level]);
+        }
+        if (nogoods != null) {
+            int size = initialPosition.getSize();
+            long[] conflict = conflicts[level];
+            int length = 0;
+            for (int parent = 0; parent < level; parent++) {
+                if ((conflict[parent >> 6] & (1L << parent)) != 0) {
+                    if (length == nogoodBuffer.length) {
+                        return;
+                    }
+                    nogoodBuffer[length++] = NogoodStore.literal(size, frameRow[parent], frameCol[parent],
+                        frameValues[2 * parent + frameNext[parent] - 1]);
+                }
+            }
+            nogoods.add(nogoodBuffer, length);
+        }
+    }
+    
+    /**
+     * Le fils de la décision en cours au niveau a échoué pour la raison donnée (ensemble
+     * de niveaux de décision). Si la décision du niveau n'en fait pas partie, l'autre
+     * valeur de la case échouerait de même: elle n'est pas essayée et la raison devient
+     * celle du nœud (retour arrière dirigé par les conflits). Sinon la raison, privée de
+     * cette décision, s'ajoute à l'ensemble de conflit du nœud
+     */
+    private void childFailed(int level, long[] reason) {
+        long[] conflict = conflicts[level];
+        if ((reason[level >> 6] & (1L << level)) == 0) {
+            System.arraycopy(reason, 0, conflict, 0, conflict.length);
+            frameNext[level] = frameCount[level];
+        } else {
+            for (int word = 0; word < conflict.length; word++) {
+                conflict[word] |= reason[word];
+            }
+            conflict[level >> 6] &= ~(1L << level);
+        }
+    }
+    
+    /**
+     * Raison par défaut: toutes les décisions des niveaux 0 à maxLevel
+     */
+    private long[] pathCause(int maxLevel) {
+        Arrays.fill(cause, 0L);
+        for (int level = 0; level <= maxLevel; level++) {
+            cause[level >> 6] |= 1L << level;
+        }
+        return cause;
+    }
+    
+    /**
+     * Raison pour laquelle la case vide (row, col) de position n'accepte aucune des valeurs
+     * du masque (bit 1 pour 0, bit 2 pour 1): pour chacune, les décisions des niveaux 0 à
+     * maxLevel qui enfreignent la règle avec elle. Chemin complet si une valeur n'est pas
+     * expliquée, ou sans explication des échecs
+     */
+    private long[] exclusionCause(int maxLevel, BinairoPosition position, int row, int col, int mask) {
+        if (!explainFailures) {
+            return pathCause(maxLevel);
+        }
+        Arrays.fill(cause, 0L);
+        for (int value = 0; value < 2; value++) {
+            if ((mask & (1 << value)) != 0 && !explainExclusion(maxLevel, position, row, col, value)) {
+                return pathCause(maxLevel);
+            }
+        }
+        return cause;
+    }
+    
+    /**
+     * Ajoute à cause les décisions qui interdisent value en (row, col): les deux cases d'un
+     * triplet (règle 1), les cases de la ligne qui ont déjà value (règle 2), ou la ligne et
+     * la ligne complète qu'elle recopierait (règle 3). Retourne faux si aucune règle ne
+     * l'interdit
+     */
+    private boolean explainExclusion(int maxLevel, BinairoPosition position, int row, int col, int value) {
+        int size = position.getSize();
+        
+        // Règle 1: triplets qui contiennent la case, en ligne puis en colonne
+        for (int dRow = 0; dRow < 2; dRow++) {
+            int dCol = 1 - dRow;
+            for (int start = -2; start <= 0; start++) {
+                boolean triple = true;
+                for (int k = start; k <= start + 2; k++) {
+                    if (k != 0 && !holds(position, row + k * dRow, col + k * dCol, value)) {
+                        triple = false;
+                    }
+                }
+                if (triple) {
+                    for (int k = start; k <= start + 2; k++) {
+                        if (k != 0) {
+                            addDecision(maxLevel, row + k * dRow, col + k * dCol);
+                        }
+                    }
+                    return true;
+                }
+            }
+        }
+        
+        // Règle 2: la ligne ou la colonne a déjà sa part de value
+        int maxAllowed = (size % 2 == 0) ? size / 2 : size / 2 + 1;
+        int inRow = 0;
+        int inCol = 0;
+        int rowEmpty = 0;
+        int colEmpty = 0;
+        for (int k = 0; k < size; k++) {
+            int rowValue = position.getValue(row, k);
+            int colValue = position.getValue(k, col);
+            inRow += rowValue == value ? 1 : 0;
+            inCol += colValue == value ? 1 : 0;
+            rowEmpty += position.isEmpty(row, k) ? 1 : 0;
+            colEmpty += position.isEmpty(k, col) ? 1 : 0;
+        }
+        if (inRow >= maxAllowed || inCol >= maxAllowed) {
+            boolean byRow = inRow >= maxAllowed;
+            for (int level = 0; level <= maxLevel; level++) {
+                int r = frameRow[level];
+                int c = frameCol[level];
+                if ((byRow ? r == row : c == col) && position.getValue(r, c) == value) {
+                    cause[level >> 6] |= 1L << level;
+                }
+            }
+            return true;
+        }
+        
+        // Règle 3: la ligne (ou colonne) complétée recopierait une ligne complète (sameLine
+        // échoue sur une ligne qui a une case vide)
+        if (rowEmpty == 1) {
+            for (int k = 0; k < size; k++) {
+                if (k != row && sameLine(position, row, k, col, value, true)) {
+                    addLines(maxLevel, row, k, true);
+                    return true;
+                }
+            }
+        }
+        if (colEmpty == 1) {
+            for (int k = 0; k < size; k++) {
+                if (k != col && sameLine(position, col, k, row, value, false)) {
+                    addLines(maxLevel, col, k, false);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Ajoute à cause le niveau où la case (row, col) a été décidée (rien pour une case donnée)
+     */
+    private void addDecision(int maxLevel, int row, int col) {
+        for (int level = 0; level <= maxLevel; level++) {
+            if (frameRow[level] == row && frameCol[level] == col) {
+                cause[level >> 6] |= 1L << level;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Ajoute à cause les décisions prises sur deux lignes (ou deux colonnes)
+     */
+    private void addLines(int maxLevel, int line, int other, boolean rows) {
+        for (int level = 0; level <= maxLevel; level++) {
+            int index = rows ? frameRow[level] : frameCol[level];
+            if (index == line || index == other) {
+                cause[level >> 6] |= 1L << level;
+            }
+        }
+    }
+    
+    /**
+     * Raison de l'échec du forward checking après la décision du niveau: une case vide de
+     * la grille fille dont le domaine est vide
+     */
+    private long[] wipeoutCause(int level) {
+        BinairoPosition position = stack[level + 1];
+        int size = position.getSize();
+        byte[] domain = domains[level + 1];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (domain[i * size + j] == 0 && position.isEmpty(i, j)) {
+                    return exclusionCause(level, position, i, j, 3);
+                }
+            }
+        }
+        return pathCause(level);
+    }
+    
+    /**
+     * Raison d'un fils coupé par un nogood: les niveaux où ses décisions ont été prises
+     */
+    private long[] nogoodCause(int level, int[] nogood) {
+        if (!explainFailures) {
+            return pathCause(level);
+        }
+        int size = initialPosition.getSize();
+        Arrays.fill(cause, 0L);
+        for (int literal : nogood) {
+            int cell = literal >> 1;
+            int decision = level;
+            while (decision >= 0 && frameRow[decision] * size + frameCol[decision] != cell) {
+                decision--;
+            }
+            if (decision < 0) {
+                return pathCause(level);
+            }
+            cause[decision >> 6] |= 1L << decision;
+        }
+        return cause;
+    }
+    
+    /**
+     * Solution atteinte: termine une résolution (retourne vrai), ou la compte et
+     * continue une énumération (retourne faux)
+     */
+    private boolean solutionFound(BinairoPosition position) {
+        if (!enumerating) {
+            finish(position);
+            return true;
+        }
+        solutionsFound++;
+        if (solutionListener != null) {
+            solutionListener.onSolution(new BinairoPosition(position), solutionsFound);
+        }
+        return false;
+    }
+    
+    /**
+     * Fin de la recherche (sauf limite): le point de reprise est marqué comme terminé
      */
-    private BinairoPosition forwardChecking(BinairoPosition position) {
+    private void finish(BinairoPosition solution) {
+        if (checkpointFile != null && !limitReached) {
+            saveCheckpoint(-1, true, solution);
+        }
+    }
+    
+    /**
+     * Reconstruit la pile des décisions et les grilles de chaque niveau depuis le point
+     * de reprise, en rejouant les décisions; retourne le niveau courant
+     */
+    private int restore(SearchCheckpoint checkpoint) {
+        int levels = checkpoint.getLevels();
+        for (int level = 0; level < levels; level++) {
+            frameRow[level] = checkpoint.getRow(level);
+            frameCol[level] = checkpoint.getCol(level);
+            frameCount[level] = checkpoint.getCount(level);
+            frameNext[level] = checkpoint.getNext(level);
+            frameValues[2 * level] = checkpoint.getValue(level, 0);
+            frameValues[2 * level + 1] = checkpoint.getValue(level, 1);
+            // Des solutions ont pu être trouvées dans ce sous-arbre avant le point de reprise
+            frameSolutions[level] = -1;
+            if (level > 0) {
+                // Grille du niveau: celle du parent avec la valeur en cours d'exploration
+                int parent = level - 1;
+                depth = parent;
+                child(stack[parent]).setValue(frameRow[parent], frameCol[parent],
+                    frameValues[2 * parent + frameNext[parent] - 1]);
+            }
+            if (usesDomains()) {
+                initDomains(level);
+            }
+            // Le point fixe ne dépend pas de l'ordre: toutes les lignes sont refiltrées
+            if (REGULAR.equals(methodUsed)) {
+                propagateLines(level, -1, -1);
+            }
+            // Les déductions du sondage ne sont pas enregistrées: elles sont refaites,
+            // avant de construire le niveau suivant
+            if (SAC.equals(methodUsed) && level <= probingDepth) {
+                probe(level);
+            }
+        }
+        depth = levels - 1;
+        return levels - 1;
+    }
+    
+    /**
+     * Écrit le point de reprise si l'intervalle est écoulé
+     * L'horloge n'est lue que tous les 64 nœuds, comme pour la progression
+     */
+    private void checkpointIfDue(int level) {
+        if ((nodesExplored & 63) != 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now < nextCheckpointNanos) {
+            return;
+        }
+        nextCheckpointNanos = now + checkpointIntervalNanos;
+        saveCheckpoint(level, false, null);
+    }
+    
+    /**
+     * Écrit la pile des décisions des niveaux 0 à level et les compteurs cumulés
+     */
+    private void saveCheckpoint(int level, boolean finished, BinairoPosition solution) {
+        int levels = level + 1;
+        SearchCheckpoint checkpoint = new SearchCheckpoint(methodUsed, enumerating, finished,
+            probingDepth, initialPosition, getTotalNodes(), solutionsFound,
+            previousTimeMs + System.currentTimeMillis() - startTime,
+            solution == null ? null : new BinairoPosition(solution),
+            Arrays.copyOf(frameRow, levels), Arrays.copyOf(frameCol, levels),
+            Arrays.copyOf(frameCount, levels), Arrays.copyOf(frameNext, levels),
+            Arrays.copyOf(frameValues, 2 * levels));
+        try {
+            checkpoint.write(checkpointFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Écriture du point de reprise impossible: " + checkpointFile, e);
+        }
+    }
+    
+    /**
+     * Visite le nœud de profondeur depth (grille stack[depth])
+     * Retourne SOLVED, INVALID (échec, y compris sur une limite), ou OPEN après avoir
+     * empilé la variable choisie et ses valeurs ordonnées
+     */
+    private int expand(BinairoPosition position) {
         nodesExplored++;
+        if (metrics != null) {
+            metrics.recordNode(depth);
+        }
+        if (progressListener != null) {
+            reportProgress(position);
+        }
         
-        if (nodesExplored > MAX_NODES) {
-            return null;
+        if (limitExceeded()) {
+            return INVALID;
         }
         
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - startTime > MAX_TIME_MS) {
-            return null;
+        // Grille déjà atteinte par une recherche précédente et prouvée sans solution
+        long hash = position.getZobristHash();
+        if (failures != null && failures.contains(hash)) {
+            transpositionHits++;
+            return INVALID;
         }
         
-        if (position.isSolution()) {
-            return position;
+        int status = checkPosition(position);
+        if (status == SOLVED) {
+            trace(SearchTrace.SOLUTION, -1, -1, -1);
+            return SOLVED;
         }
         
-        if (!position.isValid()) {
-            return null;
+        if (status == INVALID) {
+            return INVALID;
+        }
+        
+        if (AC3.equals(methodUsed)) {
+            // Vérification locale améliorée (vérifie toutes les contraintes, pas seulement les voisins directs)
+            long propagationStart = phaseStart();
+            if (!recordPropagation(ac3LocalImproved(position), propagationStart)) {
+                return INVALID;
+            }
+        } else if (AC4.equals(methodUsed)) {
+            // AC-4 utilise une vérification améliorée avec comptage des supports
+            long propagationStart = phaseStart();
+            if (!recordPropagation(ac4Check(position), propagationStart)) {
+                return INVALID;
+            }
         }
         
         List<int[]> emptyPositions = position.getEmptyPositions();
         if (emptyPositions.isEmpty()) {
-            return null;
+            return INVALID;
         }
         
-        int[] nextVar = selectVariableMVR(position, emptyPositions);
-        int row = nextVar[0];
-        int col = nextVar[1];
+        // FC: les domaines de la racine sont calculés une fois, ceux des autres nœuds
+        // par forwardCheck avant d'y descendre
+        if (depth == 0 && usesDomains()) {
+            initDomains(0);
+        }
         
-        List<Integer> values = selectValueLCV(position, row, col);
+        if (REGULAR.equals(methodUsed)) {
+            // Seules la ligne et la colonne de la dernière décision ont changé depuis le parent
+            long propagationStart = phaseStart();
+            boolean consistent = depth == 0
+                ? propagateLines(0, -1, -1)
+                : propagateLines(depth, frameRow[depth - 1], frameCol[depth - 1]);
+            if (!recordPropagation(consistent, propagationStart)) {
+                return INVALID;
+            }
+            if (position.isComplete()) {
+                trace(SearchTrace.SOLUTION, -1, -1, -1);
+                return SOLVED;
+            }
+            emptyPositions = position.getEmptyPositions();
+        }
         
-        for (int value : values) {
-            BinairoPosition newPosition = new BinairoPosition(position);
-            newPosition.setValue(row, col, value);
-            
-            // Forward checking: détecte si une variable non assignée n'a plus de valeurs possibles
-            if (forwardCheck(newPosition)) {
-                BinairoPosition result = forwardChecking(newPosition);
-                if (result != null) {
-                    return result;
-                }
+        if (SAC.equals(methodUsed) && depth <= probingDepth) {
+            long propagationStart = phaseStart();
+            if (!recordPropagation(probe(depth), propagationStart)) {
+                return INVALID;
+            }
+            // Le sondage a pu remplir toutes les cases (chaque déduction respecte les règles)
+            if (position.isComplete()) {
+                trace(SearchTrace.SOLUTION, -1, -1, -1);
+                return SOLVED;
             }
+            emptyPositions = position.getEmptyPositions();
         }
         
-        return null;
+        int[] nextVar = chooseVariable(position, emptyPositions);
+        List<Integer> values = orderValues(position, nextVar[0], nextVar[1]);
+        
+        frameRow[depth] = nextVar[0];
+        frameCol[depth] = nextVar[1];
+        frameCount[depth] = values.size();
+        frameNext[depth] = 0;
+        frameHash[depth] = hash;
+        frameSolutions[depth] = solutionsFound;
+        for (int i = 0; i < values.size(); i++) {
+            frameValues[2 * depth + i] = values.get(i);
+        }
+        if (diversity != null && values.size() == 2 && diversity.nextBoolean()) {
+            frameValues[2 * depth] = values.get(1);
+            frameValues[2 * depth + 1] = values.get(0);
+        }
+        if (nogoods != null) {
+            long[] conflict = conflicts[depth];
+            Arrays.fill(conflict, 0L);
+            if (values.size() < 2) {
+                // Valeurs écartées par LCV: elles enfreignent déjà une règle
+                int excluded = 3;
+                for (int value : values) {
+                    excluded &= ~(1 << value);
+                }
+                long[] reason = exclusionCause(depth - 1, position, nextVar[0], nextVar[1], excluded);
+                for (int word = 0; word < conflict.length; word++) {
+                    conflict[word] |= reason[word];
+                }
+            }
+        }
+        return OPEN;
     }
     
     /**
-     * Forward checking: vérifie si chaque variable non assignée a au moins une valeur possible
+     * Forward checking incrémental: vérifie si chaque variable non assignée de la grille
+     * fille (stack[level + 1], où value vient d'être placée en (row, col)) a au moins une
+     * valeur possible
+     *
+     * Les domaines du niveau parent sont repris et seules les cases dont le domaine peut
+     * changer sont recalculées: celles de la ligne et de la colonne de la case, et, si la
+     * ligne (ou colonne) vient d'être complétée, la case vide des lignes (ou colonnes) à
+     * une seule case vide, pour la règle 3. Chaque test de case est en O(1) grâce aux
+     * compteurs par ligne et colonne, hors comparaison de lignes complètes
+     * Suppose la grille fille valide: LCV ne propose que des valeurs qui respectent les règles
      */
-    private boolean forwardCheck(BinairoPosition position) {
-        List<int[]> emptyPositions = position.getEmptyPositions();
+    private boolean forwardCheck(int level, int row, int col, int value) {
+        copyDomains(level, level + 1);
+        return assignDomains(level + 1, row, col, value);
+    }
+    
+    /**
+     * Reprend les domaines et les compteurs d'un niveau dans un autre
+     */
+    private void copyDomains(int from, int to) {
+        int size = stack[from].getSize();
+        byte[] domain = levelDomains(to, size);
+        System.arraycopy(domains[from], 0, domain, 0, size * size);
+        System.arraycopy(lineCounts[from], 0, lineCounts[to], 0, 4 * size);
+        wipeouts[to] = wipeouts[from];
+    }
+    
+    /**
+     * Met à jour les domaines et les compteurs du niveau après que value a été placée en
+     * (row, col) dans stack[level]; retourne faux si une case vide n'a plus de valeur possible
+     */
+    private boolean assignDomains(int level, int row, int col, int value) {
+        BinairoPosition position = stack[level];
+        int size = position.getSize();
+        byte[] domain = domains[level];
+        int[] counts = lineCounts[level];
         
-        for (int[] pos : emptyPositions) {
-            int row = pos[0];
-            int col = pos[1];
-            boolean hasValidValue = false;
-            
-            for (int value = 0; value <= 1; value++) {
-                BinairoPosition test = new BinairoPosition(position);
-                test.setValue(row, col, value);
-                if (test.isValid()) {
-                    hasValidValue = true;
-                    break;
+        counts[2 * row + value]++;
+        counts[2 * (size + col) + value]++;
+        if (domain[row * size + col] == 0) {
+            wipeouts[level]--;
+        }
+        domain[row * size + col] = 0;
+        
+        for (int j = 0; j < size; j++) {
+            if (position.isEmpty(row, j)) {
+                refreshDomain(level, row, j);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (position.isEmpty(i, col)) {
+                refreshDomain(level, i, col);
+            }
+        }
+        
+        // Ligne complétée: la case restante des lignes presque complètes ne doit pas la recopier
+        if (counts[2 * row] + counts[2 * row + 1] == size) {
+            for (int i = 0; i < size; i++) {
+                if (counts[2 * i] + counts[2 * i + 1] == size - 1) {
+                    for (int j = 0; j < size; j++) {
+                        if (position.isEmpty(i, j)) {
+                            refreshDomain(level, i, j);
+                            break;
+                        }
+                    }
                 }
             }
-            
-            if (!hasValidValue) {
-                return false; 
+        }
+        if (counts[2 * (size + col)] + counts[2 * (size + col) + 1] == size) {
+            for (int j = 0; j < size; j++) {
+                if (counts[2 * (size + j)] + counts[2 * (size + j) + 1] == size - 1) {
+                    for (int i = 0; i < size; i++) {
+                        if (position.isEmpty(i, j)) {
+                            refreshDomain(level, i, j);
+                            break;
+                        }
+                    }
+                }
             }
         }
         
-        return true;
+        return wipeouts[level] == 0;
     }
     
     /**
-     * Recherche avec AC-3
-     * Utilise ac3Local pour une vérification rapide de cohérence locale
+     * FC, SAC et Regular tiennent à jour les domaines des cases
      */
-    private BinairoPosition ac3Search(BinairoPosition position) {
-        nodesExplored++;
+    private boolean usesDomains() {
+        return FC.equals(methodUsed) || SAC.equals(methodUsed) || REGULAR.equals(methodUsed);
+    }
+    
+    /**
+     * Propagation de la contrainte regular au nœud stack[level], jusqu'au point fixe
+     * Part de la ligne row et de la colonne col (toutes les lignes et colonnes si row vaut -1)
+     * Une case qui n'a plus qu'une valeur possible sur sa ligne est remplie, et la ligne qui
+     * la croise est filtrée à son tour. La ligne filtrée elle-même reste cohérente: la
+     * valeur placée était la seule possible
+     * Retourne faux si une ligne ne peut plus être complétée ou si un domaine devient vide
+     */
+    private boolean propagateLines(int level, int row, int col) {
+        BinairoPosition position = stack[level];
+        int size = position.getSize();
+        if (automaton == null || automaton.getSize() != size) {
+            automaton = new LineAutomaton(size);
+            lineValues = new int[size];
+            lineSupports = new int[size];
+            dirtyLines = new boolean[2 * size];
+            lineQueue = new int[2 * size];
+        }
         
-        if (nodesExplored > MAX_NODES) {
-            return null;
+        // File circulaire des lignes à filtrer (0..size-1: lignes, size..2size-1: colonnes)
+        Arrays.fill(dirtyLines, false);
+        int head = 0;
+        int queued = 0;
+        for (int line = 0; line < 2 * size; line++) {
+            if (row < 0 || line == row || line == size + col) {
+                dirtyLines[line] = true;
+                lineQueue[(head + queued++) % (2 * size)] = line;
+            }
         }
         
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - startTime > MAX_TIME_MS) {
-            return null;
+        while (queued > 0) {
+            int line = lineQueue[head];
+            head = (head + 1) % (2 * size);
+            queued--;
+            dirtyLines[line] = false;
+            boolean isRow = line < size;
+            int index = isRow ? line : line - size;
+            for (int k = 0; k < size; k++) {
+                lineValues[k] = isRow ? position.getValue(index, k) : position.getValue(k, index);
+            }
+            if (!automaton.filter(lineValues, lineSupports)) {
+                return false;
+            }
+            for (int k = 0; k < size; k++) {
+                int support = lineSupports[k];
+                if (lineValues[k] != -1 || support == 3) {
+                    continue;
+                }
+                if (support == 0) {
+                    return false;
+                }
+                int value = support == 1 ? 0 : 1;
+                int r = isRow ? index : k;
+                int c = isRow ? k : index;
+                // La règle 3 peut interdire la seule valeur permise par la ligne
+                if ((domains[level][r * size + c] & (1 << value)) == 0) {
+                    return false;
+                }
+                position.setValue(r, c, value);
+                if (!assignDomains(level, r, c, value)) {
+                    return false;
+                }
+                int crossing = isRow ? size + c : r;
+                if (!dirtyLines[crossing]) {
+                    dirtyLines[crossing] = true;
+                    lineQueue[(head + queued++) % (2 * size)] = crossing;
+                }
+            }
+        }
+        return wipeouts[level] == 0;
+    }
+    
+    /**
+     * Sondage des littéraux (failed-literal probing, SAC) au nœud stack[level]
+     * Chaque valeur possible de chaque case vide est placée dans une copie du nœud
+     * (niveau level + 1, libre à ce moment) et propagée; si un domaine devient vide, la
+     * valeur est impossible et la case reçoit l'autre valeur dans le nœud lui-même
+     * Recommence tant qu'une déduction est faite. Un littéral sondé avec succès, ou
+     * déduit pendant ce sondage, n'est pas sondé à nouveau tant qu'aucune déduction n'a
+     * eu lieu depuis
+     * Retourne faux si le nœud n'a pas de solution
+     */
+    private boolean probe(int level) {
+        BinairoPosition position = stack[level];
+        int size = position.getSize();
+        if (wipeouts[level] > 0 || !propagateSingletons(level)) {
+            return false;
+        }
+        if (probedAt == null || probedAt.length != 2 * size * size) {
+            probedAt = new int[2 * size * size];
+        }
+        Arrays.fill(probedAt, -1);
+        
+        int scratch = level + 1;
+        if (stack[scratch] == null) {
+            stack[scratch] = new BinairoPosition(size);
+        }
+        BinairoPosition test = stack[scratch];
+        int deductions = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int cell = 0; cell < size * size; cell++) {
+                int row = cell / size;
+                int col = cell % size;
+                for (int value = 0; value <= 1 && position.isEmpty(row, col); value++) {
+                    if ((domains[level][cell] & (1 << value)) == 0 || probedAt[2 * cell + value] == deductions) {
+                        continue;
+                    }
+                    test.copyFrom(position);
+                    copyDomains(level, scratch);
+                    test.setValue(row, col, value);
+                    if (assignDomains(scratch, row, col, value) && propagateSingletons(scratch)) {
+                        // Les littéraux déduits sont impliqués par celui-ci: leur sondage réussirait aussi
+                        for (int other = 0; other < size * size; other++) {
+                            int placed = test.getValue(other / size, other % size);
+                            if (placed != -1 && position.isEmpty(other / size, other % size)) {
+                                probedAt[2 * other + placed] = deductions;
+                            }
+                        }
+                        continue;
+                    }
+                    
+                    // Valeur impossible: la case prend l'autre valeur, si elle est possible
+                    int forced = 1 - value;
+                    if ((domains[level][cell] & (1 << forced)) == 0) {
+                        return false;
+                    }
+                    position.setValue(row, col, forced);
+                    if (!assignDomains(level, row, col, forced) || !propagateSingletons(level)) {
+                        return false;
+                    }
+                    deductions++;
+                    changed = true;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Place les cases qui n'ont plus qu'une valeur possible, jusqu'à ce qu'il n'y en ait plus
+     * Retourne faux si une case vide n'a plus de valeur possible
+     */
+    private boolean propagateSingletons(int level) {
+        BinairoPosition position = stack[level];
+        int size = position.getSize();
+        byte[] domain = domains[level];
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int cell = 0; cell < size * size; cell++) {
+                int row = cell / size;
+                int col = cell % size;
+                if (position.isEmpty(row, col) && (domain[cell] == 1 || domain[cell] == 2)) {
+                    int value = domain[cell] == 1 ? 0 : 1;
+                    position.setValue(row, col, value);
+                    if (!assignDomains(level, row, col, value)) {
+                        return false;
+                    }
+                    changed = true;
+                }
+            }
+        }
+        return wipeouts[level] == 0;
+    }
+    
+    /**
+     * Calcule entièrement les domaines et les compteurs du niveau (racine, reprise)
+     */
+    private void initDomains(int level) {
+        BinairoPosition position = stack[level];
+        int size = position.getSize();
+        byte[] domain = levelDomains(level, size);
+        int[] counts = lineCounts[level];
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int value = position.getValue(i, j);
+                if (value != -1) {
+                    counts[2 * i + value]++;
+                    counts[2 * (size + j) + value]++;
+                }
+            }
+        }
+        wipeouts[level] = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (position.isEmpty(i, j)) {
+                    domain[i * size + j] = 1;
+                    refreshDomain(level, i, j);
+                } else {
+                    domain[i * size + j] = 0;
+                }
+            }
+        }
+    }
+    
+    private byte[] levelDomains(int level, int size) {
+        if (domains[level] == null) {
+            domains[level] = new byte[size * size];
+            lineCounts[level] = new int[4 * size];
+        }
+        return domains[level];
+    }
+    
+    /**
+     * Recalcule le domaine d'une case vide et tient à jour le nombre de domaines vides
+     */
+    private void refreshDomain(int level, int row, int col) {
+        BinairoPosition position = stack[level];
+        int size = position.getSize();
+        byte[] domain = domains[level];
+        int[] counts = lineCounts[level];
+        int updated = (canPlace(position, counts, row, col, 0) ? 1 : 0)
+            | (canPlace(position, counts, row, col, 1) ? 2 : 0);
+        int previous = domain[row * size + col];
+        if (previous == 0 && updated != 0) {
+            wipeouts[level]--;
+        } else if (previous != 0 && updated == 0) {
+            wipeouts[level]++;
         }
+        domain[row * size + col] = (byte) updated;
+    }
+    
+    /**
+     * Vrai si la grille (valide) reste valide avec value en (row, col): mêmes règles que
+     * isValid(), limitées à la ligne et à la colonne de la case
+     */
+    private static boolean canPlace(BinairoPosition position, int[] counts, int row, int col, int value) {
+        int size = position.getSize();
         
-        if (position.isSolution()) {
-            return position;
+        // Règle 2: le nombre de value ne doit pas dépasser la moitié de la ligne ou colonne
+        int maxAllowed = (size % 2 == 0) ? size / 2 : size / 2 + 1;
+        if (counts[2 * row + value] >= maxAllowed || counts[2 * (size + col) + value] >= maxAllowed) {
+            return false;
         }
         
-        if (!position.isValid()) {
-            return null;
+        // Règle 1: pas trois chiffres identiques côte à côte
+        if (triple(position, row, col, 0, 1, value) || triple(position, row, col, 1, 0, value)) {
+            return false;
         }
         
-        // Vérification locale améliorée (vérifie toutes les contraintes, pas seulement les voisins directs)
-        if (!ac3LocalImproved(position)) {
-            return null;
+        // Règle 3: une ligne ou colonne complétée par cette case ne doit pas en répéter une autre
+        int rowFilled = counts[2 * row] + counts[2 * row + 1];
+        if (rowFilled == size - 1) {
+            int zeros = counts[2 * row] + (value == 0 ? 1 : 0);
+            for (int k = 0; k < size; k++) {
+                if (k != row && counts[2 * k] + counts[2 * k + 1] == size && counts[2 * k] == zeros
+                        && sameLine(position, row, k, col, value, true)) {
+                    return false;
+                }
+            }
         }
-        
-        List<int[]> emptyPositions = position.getEmptyPositions();
-        if (emptyPositions.isEmpty()) {
-            return null;
+        int colFilled = counts[2 * (size + col)] + counts[2 * (size + col) + 1];
+        if (colFilled == size - 1) {
+            int zeros = counts[2 * (size + col)] + (value == 0 ? 1 : 0);
+            for (int k = 0; k < size; k++) {
+                int other = 2 * (size + k);
+                if (k != col && counts[other] + counts[other + 1] == size && counts[other] == zeros
+                        && sameLine(position, col, k, row, value, false)) {
+                    return false;
+                }
+            }
         }
-        
-        int[] nextVar = selectVariableMVR(position, emptyPositions);
-        int row = nextVar[0];
-        int col = nextVar[1];
-        
-        List<Integer> values = selectValueLCV(position, row, col);
-        
-        for (int value : values) {
-            BinairoPosition newPosition = new BinairoPosition(position);
-            newPosition.setValue(row, col, value);
-            
-            BinairoPosition result = ac3Search(newPosition);
-            if (result != null) {
-                return result;
+        return true;
+    }
+    
+    /**
+     * Vrai si value en (row, col) forme trois chiffres identiques dans la direction (dRow, dCol)
+     */
+    private static boolean triple(BinairoPosition position, int row, int col, int dRow, int dCol, int value) {
+        boolean before1 = holds(position, row - dRow, col - dCol, value);
+        boolean after1 = holds(position, row + dRow, col + dCol, value);
+        return (before1 && (after1 || holds(position, row - 2 * dRow, col - 2 * dCol, value)))
+            || (after1 && holds(position, row + 2 * dRow, col + 2 * dCol, value));
+    }
+    
+    private static boolean holds(BinairoPosition position, int row, int col, int value) {
+        int size = position.getSize();
+        return row >= 0 && row < size && col >= 0 && col < size && position.getValue(row, col) == value;
+    }
+    
+    /**
+     * Compare la ligne (ou colonne) line, complétée par value à l'indice index, avec la
+     * ligne (ou colonne) complète other
+     */
+    private static boolean sameLine(BinairoPosition position, int line, int other, int index, int value, boolean rows) {
+        int size = position.getSize();
+        for (int k = 0; k < size; k++) {
+            int a = k == index ? value : (rows ? position.getValue(line, k) : position.getValue(k, line));
+            int b = rows ? position.getValue(other, k) : position.getValue(k, other);
+            if (a != b) {
+                return false;
             }
         }
-        
-        return null;
+        return true;
     }
     
     /**
@@ -387,9 +1620,7 @@ public class GameSearch {
             boolean hasConsistentValue = false;
             
             for (int v1 = 0; v1 <= 1; v1++) {
-                BinairoPosition test = new BinairoPosition(position);
-                test.setValue(row1, col1, v1);
-                if (test.isValid()) {
+                if (isValidWith(position, row1, col1, v1)) {
                     hasConsistentValue = true;
                     break;
                 }
@@ -429,19 +1660,18 @@ public class GameSearch {
     private boolean revise(BinairoPosition position, int row1, int col1, int row2, int col2) {
         boolean revised = false;
         
+        int previous = position.getValue(row1, col1);
         for (int v1 = 0; v1 <= 1; v1++) {
-            BinairoPosition test = new BinairoPosition(position);
-            test.setValue(row1, col1, v1);
+            position.setValue(row1, col1, v1);
             
             boolean hasSupport = false;
             for (int v2 = 0; v2 <= 1; v2++) {
-                BinairoPosition test2 = new BinairoPosition(test);
-                test2.setValue(row2, col2, v2);
-                if (test2.isValid()) {
+                if (isValidWith(position, row2, col2, v2)) {
                     hasSupport = true;
                     break;
                 }
             }
+            position.setValue(row1, col1, previous);
             
             if (!hasSupport) {
                 revised = true;
@@ -451,59 +1681,6 @@ public class GameSearch {
         return revised;
     }
     
-    /**
-     * Recherche avec AC-4
-     * AC-4 est une amélioration de AC-3 avec comptage plus précis des supports
-     */
-    private BinairoPosition ac4Search(BinairoPosition position) {
-        nodesExplored++;
-        
-        if (nodesExplored > MAX_NODES) {
-            return null;
-        }
-        
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - startTime > MAX_TIME_MS) {
-            return null;
-        }
-        
-        if (position.isSolution()) {
-            return position;
-        }
-        
-        if (!position.isValid()) {
-            return null;
-        }
-        
-        // AC-4 utilise une vérification améliorée avec comptage des supports
-        if (!ac4Check(position)) {
-            return null;
-        }
-        
-        List<int[]> emptyPositions = position.getEmptyPositions();
-        if (emptyPositions.isEmpty()) {
-            return null;
-        }
-        
-        int[] nextVar = selectVariableMVR(position, emptyPositions);
-        int row = nextVar[0];
-        int col = nextVar[1];
-        
-        List<Integer> values = selectValueLCV(position, row, col);
-        
-        for (int value : values) {
-            BinairoPosition newPosition = new BinairoPosition(position);
-            newPosition.setValue(row, col, value);
-            
-            BinairoPosition result = ac4Search(newPosition);
-            if (result != null) {
-                return result;
-            }
-        }
-        
-        return null;
-    }
-    
     /**
      * AC-4: vérification améliorée avec comptage précis des supports
      * Plus strict que AC-3 car vérifie que chaque valeur a des supports valides
@@ -520,47 +1697,15 @@ public class GameSearch {
             boolean hasValidValueWithSupport = false;
             
             for (int value = 0; value <= 1; value++) {
-                BinairoPosition test = new BinairoPosition(position);
-                test.setValue(row, col, value);
-                
-                if (!test.isValid()) {
-                    continue;
-                }
-                
-                // Vérifier si cette valeur a au moins un support dans la ligne
-                boolean hasSupportInRow = false;
-                for (int j = 0; j < size; j++) {
-                    if (j != col && position.isEmpty(row, j)) {
-                        for (int v2 = 0; v2 <= 1; v2++) {
-                            BinairoPosition test2 = new BinairoPosition(test);
-                            test2.setValue(row, j, v2);
-                            if (test2.isValid()) {
-                                hasSupportInRow = true;
-                                break;
-                            }
-                        }
-                        if (hasSupportInRow) break;
-                    }
-                }
-                
-                // Vérifier si cette valeur a au moins un support dans la colonne
-                boolean hasSupportInCol = false;
-                for (int i = 0; i < size; i++) {
-                    if (i != row && position.isEmpty(i, col)) {
-                        for (int v2 = 0; v2 <= 1; v2++) {
-                            BinairoPosition test2 = new BinairoPosition(test);
-                            test2.setValue(i, col, v2);
-                            if (test2.isValid()) {
-                                hasSupportInCol = true;
-                                break;
-                            }
-                        }
-                        if (hasSupportInCol) break;
-                    }
-                }
+                // La valeur est testée en place puis la case est vidée à nouveau
+                position.setValue(row, col, value);
+                boolean supported = position.isValid()
+                    && hasSupportInRow(position, row, col, size)
+                    && hasSupportInCol(position, row, col, size);
+                position.setValue(row, col, -1);
                 
                 // Si cette valeur a des supports dans la ligne ET la colonne, elle est valide
-                if (hasSupportInRow && hasSupportInCol) {
+                if (supported) {
                     hasValidValueWithSupport = true;
                     break;
                 }
@@ -575,19 +1720,232 @@ public class GameSearch {
         return true;
     }
     
+    /**
+     * Vérifie si la valeur placée en (row, col) a au moins un support dans la ligne
+     */
+    private boolean hasSupportInRow(BinairoPosition position, int row, int col, int size) {
+        for (int j = 0; j < size; j++) {
+            if (j != col && position.isEmpty(row, j)) {
+                for (int v2 = 0; v2 <= 1; v2++) {
+                    if (isValidWith(position, row, j, v2)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Vérifie si la valeur placée en (row, col) a au moins un support dans la colonne
+     */
+    private boolean hasSupportInCol(BinairoPosition position, int row, int col, int size) {
+        for (int i = 0; i < size; i++) {
+            if (i != row && position.isEmpty(i, col)) {
+                for (int v2 = 0; v2 <= 1; v2++) {
+                    if (isValidWith(position, i, col, v2)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Teste la grille avec une valeur en (row, col), sans copie:
+     * la case est modifiée le temps de isValid() puis restaurée
+     */
+    private static boolean isValidWith(BinairoPosition position, int row, int col, int value) {
+        int previous = position.getValue(row, col);
+        position.setValue(row, col, value);
+        boolean valid = position.isValid();
+        position.setValue(row, col, previous);
+        return valid;
+    }
+    
+    /**
+     * Grille de travail de la racine, initialisée avec la grille à résoudre
+     */
+    private BinairoPosition root() {
+        int size = initialPosition.getSize();
+        if (stack == null) {
+            // Profondeur maximale: une décision par case vide, plus la racine
+            int levels = size * size + 1;
+            stack = new BinairoPosition[levels];
+            frameRow = new int[levels];
+            frameCol = new int[levels];
+            frameValues = new int[2 * levels];
+            frameCount = new int[levels];
+            frameNext = new int[levels];
+            frameHash = new long[levels];
+            frameSolutions = new long[levels];
+            domains = new byte[levels][];
+            wipeouts = new int[levels];
+            lineCounts = new int[levels][];
+        }
+        if (nogoods != null && conflicts == null) {
+            int levels = size * size + 1;
+            conflicts = new long[levels][(levels + 63) / 64];
+            cause = new long[(levels + 63) / 64];
+        }
+        if (stack[0] == null) {
+            stack[0] = new BinairoPosition(size);
+        }
+        stack[0].copyFrom(initialPosition);
+        return stack[0];
+    }
+    
+    /**
+     * Grille de travail du nœud fils (profondeur depth + 1), copie de position
+     * Elle est écrasée par le frère suivant: ne pas la conserver après le retour
+     */
+    private BinairoPosition child(BinairoPosition position) {
+        BinairoPosition next = stack[depth + 1];
+        if (next == null) {
+            next = new BinairoPosition(position.getSize());
+            stack[depth + 1] = next;
+        }
+        next.copyFrom(position);
+        return next;
+    }
+    
+    /**
+     * Copie la solution hors des grilles de travail, qui seront réutilisées
+     */
+    private static BinairoPosition detach(BinairoPosition result) {
+        return result == null ? null : new BinairoPosition(result);
+    }
+    
+    /**
+     * Teste si la position est une solution, invalide, ou encore ouverte
+     * Chronométré comme phase de vérification de validité
+     */
+    private int checkPosition(BinairoPosition position) {
+        long start = phaseStart();
+        int status;
+        if (position.isSolution()) {
+            status = SOLVED;
+        } else if (!position.isValid()) {
+            status = INVALID;
+        } else {
+            status = OPEN;
+        }
+        phaseEnd(SearchMetrics.PHASE_VALIDITY_CHECK, start);
+        return status;
+    }
+    
+    private int[] chooseVariable(BinairoPosition position, List<int[]> emptyPositions) {
+        long start = phaseStart();
+        int[] var = selectVariableMVR(position, emptyPositions, usesDomains() ? domains[depth] : null);
+        phaseEnd(SearchMetrics.PHASE_VARIABLE_SELECTION, start);
+        return var;
+    }
+    
+    private List<Integer> orderValues(BinairoPosition position, int row, int col) {
+        long start = phaseStart();
+        List<Integer> values = usesDomains()
+            ? selectValueLCVFromDomains(depth, row, col) : selectValueLCV(position, row, col);
+        phaseEnd(SearchMetrics.PHASE_VALUE_ORDERING, start);
+        return values;
+    }
+    
+    // Ne lit l'horloge que si les métriques sont activées
+    private long phaseStart() {
+        return metrics != null ? System.nanoTime() : 0;
+    }
+    
+    private void phaseEnd(int phase, long start) {
+        if (metrics != null) {
+            metrics.recordPhase(phase, System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Enregistre un appel de propagation démarré à start
+     * Retourne consistent pour pouvoir envelopper l'appel dans un test
+     */
+    private boolean recordPropagation(boolean consistent, long start) {
+        if (metrics != null) {
+            metrics.recordPhase(SearchMetrics.PHASE_PROPAGATION, System.nanoTime() - start);
+            metrics.recordPropagation(consistent);
+        }
+        trace(consistent ? SearchTrace.PROPAGATION : SearchTrace.WIPEOUT, -1, -1, -1);
+        return consistent;
+    }
+    
+    private void recordBacktrack(int row, int col) {
+        if (metrics != null) {
+            metrics.recordBacktrack();
+        }
+        trace(SearchTrace.BACKTRACK, row, col, -1);
+    }
+    
+    private void recordSolve(BinairoPosition result) {
+        boolean success = enumerating ? solutionsFound > 0 : result != null && result.isSolution();
+        if (metrics != null) {
+            metrics.recordSolve(System.nanoTime() - startNanos, success);
+        }
+        if (trace != null && !success) {
+            trace.onFailure(methodUsed, limitReached);
+        }
+    }
+    
+    // Rien n'est enregistré après la limite: le dump doit montrer où la recherche était bloquée,
+    // pas la remontée de la récursion
+    private void trace(int type, int row, int col, int value) {
+        if (trace != null && !limitReached) {
+            trace.record(type, depth, row, col, value);
+        }
+    }
+    
+    /**
+     * Notifie la progression si l'intervalle est écoulé
+     * L'horloge n'est lue que tous les 64 nœuds pour ne pas ralentir la recherche
+     */
+    private void reportProgress(BinairoPosition position) {
+        if ((nodesExplored & 63) != 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now < nextProgressNanos) {
+            return;
+        }
+        nextProgressNanos = now + progressIntervalNanos;
+        progressListener.onProgress(new BinairoPosition(position), nodesExplored, depth);
+    }
+    
+    /**
+     * Vérifie les limites de nœuds et de temps
+     * Le premier dépassement est marqué dans la trace
+     */
+    private boolean limitExceeded() {
+        if (cancelled || nodesExplored > maxNodes || System.currentTimeMillis() - startTime > maxTimeMs) {
+            if (!limitReached) {
+                trace(SearchTrace.LIMIT, -1, -1, -1);
+                limitReached = true;
+            }
+            return true;
+        }
+        return false;
+    }
+    
     /**
      * Heuristique MVR (Minimum Remaining Values)
      * Sélectionne la variable avec le moins de valeurs possibles
      * En cas d'égalité, utilise Degree heuristic
+     * Avec FC, le nombre de valeurs est lu dans les domaines du nœud (domain, sinon null)
      */
-    private int[] selectVariableMVR(BinairoPosition position, List<int[]> emptyPositions) {
+    private int[] selectVariableMVR(BinairoPosition position, List<int[]> emptyPositions, byte[] domain) {
         int minRemaining = Integer.MAX_VALUE;
         int[] bestVar = emptyPositions.get(0);
+        int size = position.getSize();
         
         for (int[] pos : emptyPositions) {
             int row = pos[0];
             int col = pos[1];
-            int remaining = countRemainingValues(position, row, col);
+            int remaining = domain != null
+                ? Integer.bitCount(domain[row * size + col]) : countRemainingValues(position, row, col);
             
             if (remaining < minRemaining) {
                 minRemaining = remaining;
@@ -607,9 +1965,7 @@ public class GameSearch {
     private int countRemainingValues(BinairoPosition position, int row, int col) {
         int count = 0;
         for (int value = 0; value <= 1; value++) {
-            BinairoPosition test = new BinairoPosition(position);
-            test.setValue(row, col, value);
-            if (test.isValid()) {
+            if (isValidWith(position, row, col, value)) {
                 count++;
             }
         }
@@ -641,19 +1997,22 @@ public class GameSearch {
     /**
      * Heuristique LCV (Least Constraining Value)
      * Sélectionne la valeur qui élimine le moins de valeurs possibles pour les autres variables
+     * Les valeurs sont essayées directement dans position, restaurée avant le retour:
+     * la grille ne doit pas être lue par un autre thread pendant l'appel
      */
     public List<Integer> selectValueLCV(BinairoPosition position, int row, int col) {
         List<ValueScore> scores = new ArrayList<>();
+        int previous = position.getValue(row, col);
         
         for (int value = 0; value <= 1; value++) {
-            BinairoPosition test = new BinairoPosition(position);
-            test.setValue(row, col, value);
+            position.setValue(row, col, value);
             
-            if (test.isValid()) {
-                int score = countRemainingValuesForOthers(test, row, col);
+            if (position.isValid()) {
+                int score = countRemainingValuesForOthers(position, row, col);
                 scores.add(new ValueScore(value, score));
             }
         }
+        position.setValue(row, col, previous);
         
         // Trier par score décroissant (plus de valeurs restantes = moins contraignant)
         scores.sort((a, b) -> Integer.compare(b.score, a.score));
@@ -666,6 +2025,50 @@ public class GameSearch {
         return result;
     }
     
+    /**
+     * LCV pour FC: mêmes scores que selectValueLCV, calculés avec les domaines et les
+     * compteurs du niveau au lieu de isValid()
+     */
+    private List<Integer> selectValueLCVFromDomains(int level, int row, int col) {
+        BinairoPosition position = stack[level];
+        int size = position.getSize();
+        int[] counts = lineCounts[level];
+        int domain = domains[level][row * size + col];
+        List<ValueScore> scores = new ArrayList<>();
+        
+        for (int value = 0; value <= 1; value++) {
+            if ((domain & (1 << value)) == 0) {
+                continue;
+            }
+            position.setValue(row, col, value);
+            counts[2 * row + value]++;
+            counts[2 * (size + col) + value]++;
+            
+            int score = 0;
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    if (position.isEmpty(i, j)) {
+                        if (canPlace(position, counts, i, j, 0)) score++;
+                        if (canPlace(position, counts, i, j, 1)) score++;
+                    }
+                }
+            }
+            scores.add(new ValueScore(value, score));
+            
+            counts[2 * row + value]--;
+            counts[2 * (size + col) + value]--;
+            position.setValue(row, col, -1);
+        }
+        
+        scores.sort((a, b) -> Integer.compare(b.score, a.score));
+        
+        List<Integer> result = new ArrayList<>();
+        for (ValueScore vs : scores) {
+            result.add(vs.value);
+        }
+        return result;
+    }
+    
     private int countRemainingValuesForOthers(BinairoPosition position, int excludeRow, int excludeCol) {
         int total = 0;
         List<int[]> emptyPositions = position.getEmptyPositions();
@@ -723,9 +2126,7 @@ public class GameSearch {
     
     private boolean hasValidValues(BinairoPosition position, int row, int col) {
         for (int value = 0; value <= 1; value++) {
-            BinairoPosition test = new BinairoPosition(position);
-            test.setValue(row, col, value);
-            if (test.isValid()) {
+            if (isValidWith(position, row, col, value)) {
                 return true;
             }
         }
@@ -736,6 +2137,20 @@ public class GameSearch {
         return nodesExplored;
     }
     
+    /**
+     * Nœuds explorés par toutes les sessions, en comptant celles avant la reprise
+     */
+    public long getTotalNodes() {
+        return previousNodes + nodesExplored;
+    }
+    
+    /**
+     * Nombre de solutions trouvées par la dernière énumération
+     */
+    public long getSolutionsFound() {
+        return solutionsFound;
+    }
+    
     public long getExecutionTime() {
         return endTime - startTime;
     }
@@ -744,10 +2159,36 @@ public class GameSearch {
         return methodUsed;
     }
     
+    /**
+     * Indique si la dernière résolution a été interrompue par la limite de nœuds ou de temps
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+    
+    /**
+     * Interrompt la recherche en cours depuis un autre thread
+     * La recherche se termine au prochain nœud et retourne null, comme sur une limite
+     */
+    public void cancel() {
+        cancelled = true;
+        List<GameSearch> workers = parallelWorkers;
+        if (workers != null) {
+            for (GameSearch worker : workers) {
+                worker.cancel();
+            }
+        }
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
     /**
      * Compare les différentes méthodes de résolution
+     * Affiche la progression et le résumé sur la console et retourne les résultats
      */
-    public static void compareMethods(BinairoPosition position) {
+    public static List<SearchResult> compareMethods(BinairoPosition position) {
         System.out.println("\n=== Comparaison des méthodes de résolution ===\n");
         System.out.println("⚠ Note: Limite de 50,000 nœuds et 30 secondes par méthode pour éviter OutOfMemoryError\n");
         
@@ -756,47 +2197,14 @@ public class GameSearch {
         
         for (String method : methods) {
             System.out.println("Test de " + method + "...");
-            try {
-                GameSearch search = new GameSearch(position);
-                BinairoPosition solution = null;
-                
-                long start = System.currentTimeMillis();
-                switch (method) {
-                    case BACKTRACKING:
-                        solution = search.solveBacktracking();
-                        break;
-                    case FC:
-                        solution = search.solveForwardChecking();
-                        break;
-                    case AC3:
-                        solution = search.solveAC3();
-                        break;
-                    case AC4:
-                        solution = search.solveAC4();
-                        break;
-                }
-                long end = System.currentTimeMillis();
-                
-                boolean solved = (solution != null && solution.isSolution());
-                String status = solved ? "✓ Résolu" : "✗ Limite atteinte ou insoluble";
-                System.out.println("  " + status + " (" + search.getNodesExplored() + " nœuds, " + (end - start) + " ms)");
-                
-                results.add(new SearchResult(method, solved, 
-                    search.getNodesExplored(), end - start));
-                    
-                // Nettoyer la mémoire
-                solution = null;
-                search = null;
-                System.gc(); // Suggérer garbage collection
-                
-            } catch (OutOfMemoryError e) {
-                System.out.println("  ✗ OutOfMemoryError - Méthode trop lourde pour cette grille");
-                results.add(new SearchResult(method, false, MAX_NODES, MAX_TIME_MS));
-                System.gc(); // Forcer garbage collection
-            } catch (Exception e) {
-                System.out.println("  ✗ Erreur: " + e.getMessage());
-                results.add(new SearchResult(method, false, 0, 0));
+            SearchResult result = runMethod(position, method);
+            if (result.error != null) {
+                System.out.println("  ✗ " + result.error);
+            } else {
+                String status = result.solved ? "✓ Résolu" : "✗ Limite atteinte ou insoluble";
+                System.out.println("  " + status + " (" + result.nodes + " nœuds, " + result.time + " ms)");
             }
+            results.add(result);
         }
         
         // Afficher les résultats
@@ -806,27 +2214,98 @@ public class GameSearch {
         System.out.println("------------------------------------------------------------");
         
         for (SearchResult result : results) {
-            String solvedStr = result.solved ? "Oui" : "Non";
-            if (result.nodes >= MAX_NODES) {
-                solvedStr += " (limite)";
-            }
             System.out.printf("%-20s %-10s %-15d %-15d%n",
-                result.method, solvedStr, result.nodes, result.time);
+                result.method, result.getSolvedLabel(), result.nodes, result.time);
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Exécute une seule méthode sur une copie de la grille, sans rien afficher
+     * Utilisé par compareMethods et par le mode benchmark (BinairoBenchmark)
+     */
+    public static SearchResult runMethod(BinairoPosition position, String method) {
+        return runMethod(position, method, null);
+    }
+    
+    /**
+     * Comme runMethod, en ajoutant les compteurs de la recherche à metrics (peut être null)
+     */
+    public static SearchResult runMethod(BinairoPosition position, String method, SearchMetrics metrics) {
+        try {
+            GameSearch search = new GameSearch(position);
+            search.setMetrics(metrics);
+            
+            long start = System.nanoTime();
+            BinairoPosition solution = search.solve(method);
+            long elapsedNanos = System.nanoTime() - start;
+            
+            boolean solved = (solution != null && solution.isSolution());
+            return new SearchResult(method, solved, search.getNodesExplored(), elapsedNanos);
+            
+        } catch (OutOfMemoryError e) {
+            // Libérer la mémoire avant de passer à la méthode suivante
+            System.gc();
+            SearchResult result = new SearchResult(method, false, MAX_NODES, MAX_TIME_MS * 1_000_000L);
+            result.error = "OutOfMemoryError - Méthode trop lourde pour cette grille";
+            return result;
+        } catch (Exception e) {
+            SearchResult result = new SearchResult(method, false, 0, 0);
+            result.error = "Erreur: " + e.getMessage();
+            return result;
         }
     }
     
-    private static class SearchResult {
+    /**
+     * Résultat d'une exécution d'une méthode de résolution
+     */
+    public static class SearchResult {
         String method;
         boolean solved;
         int nodes;
         long time;
+        long timeNanos;
+        String error;
         
-        SearchResult(String method, boolean solved, int nodes, long time) {
+        SearchResult(String method, boolean solved, int nodes, long timeNanos) {
             this.method = method;
             this.solved = solved;
             this.nodes = nodes;
-            this.time = time;
+            this.timeNanos = timeNanos;
+            this.time = timeNanos / 1_000_000L;
+        }
+        
+        public String getMethod() {
+            return method;
+        }
+        
+        public boolean isSolved() {
+            return solved;
+        }
+        
+        public int getNodes() {
+            return nodes;
+        }
+        
+        public long getTime() {
+            return time;
+        }
+        
+        public long getTimeNanos() {
+            return timeNanos;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public String getSolvedLabel() {
+            String label = solved ? "Oui" : "Non";
+            if (nodes >= MAX_NODES) {
+                label += " (limite)";
+            }
+            return label;
         }
     }
 }
-
@@ -0,0 +1,99 @@
+import java.util.Arrays;
+
+/**
+ * Encodage compact d'une grille: 2 bits par cellule (00 = vide, 01 = 0, 10 = 1)
+ * Les cellules sont rangées ligne par ligne à partir des bits de poids fort,
+ * de sorte que l'ordre de compareTo est l'ordre lexicographique des cellules
+ * (vide < 0 < 1)
+ *
+ * Sert de clé de hachage (SolutionCache) et de forme canonique (BinairoPosition.canonicalKey)
+ */
+public final class GridKey implements Comparable<GridKey> {
+    private static final int CELLS_PER_WORD = 32;
+
+    private final int size;
+    private final long[] bits;
+    private final int hash;
+
+    GridKey(int size, long[] bits) {
+        this.size = size;
+        this.bits = bits;
+        this.hash = 31 * size + Arrays.hashCode(bits);
+    }
+
+    static int wordCount(int size) {
+        return (size * size + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+    }
+
+    /**
+     * Code 2 bits d'une valeur de cellule (-1, 0 ou 1)
+     */
+    static long cellCode(int value) {
+        return value + 1;
+    }
+
+    static void setCell(long[] bits, int index, int value) {
+        int shift = 62 - 2 * (index % CELLS_PER_WORD);
+        bits[index / CELLS_PER_WORD] |= cellCode(value) << shift;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Valeur (-1, 0 ou 1) de la cellule (row, col)
+     */
+    public int getValue(int row, int col) {
+        int index = row * size + col;
+        int shift = 62 - 2 * (index % CELLS_PER_WORD);
+        return (int) ((bits[index / CELLS_PER_WORD] >>> shift) & 3) - 1;
+    }
+
+    public BinairoPosition toPosition() {
+        BinairoPosition pos = new BinairoPosition(size);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                pos.setValue(i, j, getValue(i, j));
+            }
+        }
+        return pos;
+    }
+
+    @Override
+    public int compareTo(GridKey other) {
+        if (size != other.size) {
+            return Integer.compare(size, other.size);
+        }
+        for (int w = 0; w < bits.length; w++) {
+            int c = Long.compareUnsigned(bits[w], other.bits[w]);
+            if (c != 0) return c;
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        GridKey key = (GridKey) obj;
+        return size == key.size && Arrays.equals(bits, key.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Forme hexadécimale, utilisable comme identifiant dans des fichiers ou des logs
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append(size).append(':');
+        for (long word : bits) {
+            sb.append(String.format("%016x", word));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,115 @@
+import java.util.*;
+
+/**
+ * Contrainte "regular" sur une ligne ou une colonne: la ligne est un mot accepté par un
+ * automate qui encode la règle 1 (pas trois chiffres identiques côte à côte) et la
+ * règle 2 (au plus la moitié de 0 et de 1, comme checkRule2)
+ *
+ * États de l'automate après i cases: nombre de 0 placés (le nombre de 1 s'en déduit),
+ * dernier chiffre et longueur de la série en cours (1 ou 2)
+ * Le filtrage parcourt le graphe en couches (une couche par case) dans les deux sens:
+ * une valeur est possible pour une case si une transition portant cette valeur relie un
+ * état accessible depuis le début à un état depuis lequel la fin est accessible
+ * Le résultat est la cohérence de domaine pour les règles 1 et 2 sur la ligne, en
+ * O(n × états) = O(n²) par ligne; la règle 3 n'est pas une contrainte de ligne
+ *
+ * Les tampons sont réutilisés d'un appel à l'autre: une instance par thread
+ */
+public final class LineAutomaton {
+    private final int size;
+    private final int maxAllowed;
+    private final int states;
+    // Accessibilité par couche: forward depuis le début, backward vers la fin
+    private final boolean[] forward;
+    private final boolean[] backward;
+
+    public LineAutomaton(int size) {
+        this.size = size;
+        this.maxAllowed = (size % 2 == 0) ? size / 2 : size / 2 + 1;
+        this.states = 4 * (maxAllowed + 1);
+        this.forward = new boolean[(size + 1) * states];
+        this.backward = new boolean[(size + 1) * states];
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Calcule les valeurs possibles de chaque case de la ligne (-1 pour une case vide)
+     * supported[k] reçoit 1 si 0 est possible, 2 si 1 est possible, 3 si les deux le sont
+     * (valeur déjà placée: seul son bit). Retourne faux si la ligne ne peut pas être complétée
+     */
+    public boolean filter(int[] line, int[] supported) {
+        Arrays.fill(forward, false);
+        Arrays.fill(backward, false);
+
+        // Couche 0: état initial, codé comme "dernier chiffre 0, série 0" (index 0)
+        forward[0] = true;
+        for (int i = 0; i < size; i++) {
+            int base = i * states;
+            for (int state = 0; state < states; state++) {
+                if (!forward[base + state]) continue;
+                for (int value = 0; value <= 1; value++) {
+                    if (line[i] != -1 && line[i] != value) continue;
+                    int next = transition(i, state, value);
+                    if (next >= 0) {
+                        forward[base + states + next] = true;
+                    }
+                }
+            }
+        }
+
+        // Toute la couche finale accepte: les comptes sont déjà bornés par les transitions
+        boolean accepted = false;
+        int last = size * states;
+        for (int state = 0; state < states; state++) {
+            if (forward[last + state]) {
+                backward[last + state] = true;
+                accepted = true;
+            }
+        }
+        if (!accepted) {
+            return false;
+        }
+
+        for (int i = size - 1; i >= 0; i--) {
+            int base = i * states;
+            int support = 0;
+            for (int state = 0; state < states; state++) {
+                if (!forward[base + state]) continue;
+                for (int value = 0; value <= 1; value++) {
+                    if (line[i] != -1 && line[i] != value) continue;
+                    int next = transition(i, state, value);
+                    if (next >= 0 && backward[base + states + next]) {
+                        backward[base + state] = true;
+                        support |= 1 << value;
+                    }
+                }
+            }
+            supported[i] = support;
+        }
+        return true;
+    }
+
+    /**
+     * État atteint en lisant value en position i depuis state, ou -1 si une règle est violée
+     */
+    private int transition(int i, int state, int value) {
+        int zeros = state >> 2;
+        int lastValue = (state >> 1) & 1;
+        int run = (state & 1) + 1;
+        int ones = i - zeros;
+
+        int newZeros = zeros + (value == 0 ? 1 : 0);
+        int newOnes = ones + (value == 1 ? 1 : 0);
+        if (newZeros > maxAllowed || newOnes > maxAllowed) {
+            return -1;
+        }
+        int newRun = (i > 0 && value == lastValue) ? run + 1 : 1;
+        if (newRun > 2) {
+            return -1;
+        }
+        return (newZeros << 2) | (value << 1) | (newRun - 1);
+    }
+}
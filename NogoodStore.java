@@ -0,0 +1,177 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Nogoods partagés entre les threads qui résolvent une même grille
+ *
+ * Un nogood est un ensemble court de décisions (case, valeur) dont un sous-arbre de
+ * recherche a été épuisé sans solution: aucune solution de la grille ne les contient
+ * toutes, quel que soit l'ordre dans lequel elles ont été prises. Un littéral est codé
+ * ((ligne * taille + colonne) * 2 + valeur)
+ *
+ * Chaque nogood est rangé dans le paquet de chacun de ses littéraux (WAYS entrées par
+ * littéral): après une décision, seul le paquet de ce littéral est examiné. Les paquets
+ * répartissent les écritures sur 2 × taille² zones indépendantes: deux threads ne se
+ * gênent que s'ils enregistrent des nogoods qui partagent un littéral. Quand un paquet
+ * est plein, le nogood le plus long (le moins général) est remplacé par un plus court;
+ * un nogood plus long que tous ceux du paquet n'y est pas rangé
+ *
+ * Sans verrou: les entrées sont remplacées par compareAndSet, les compteurs sont des
+ * LongAdder. Un nogood évincé d'un paquet peut rester dans les autres: il est seulement
+ * moins souvent détecté
+ */
+public final class NogoodStore {
+    public static final int DEFAULT_MAX_LENGTH = 16;
+    private static final int WAYS = 8;
+
+    private final int size;
+    private final int maxLength;
+    private final AtomicReferenceArray<int[]> slots;
+    private volatile boolean refuted;
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * @param size taille de la grille
+     * @param maxLength nombre maximal de décisions d'un nogood conservé
+     */
+    public NogoodStore(int size, int maxLength) {
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("La longueur maximale doit être positive");
+        }
+        this.size = size;
+        this.maxLength = maxLength;
+        this.slots = new AtomicReferenceArray<>(2 * size * size * WAYS);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public static int literal(int size, int row, int col, int value) {
+        return (row * size + col) * 2 + value;
+    }
+
+    /**
+     * Enregistre un ensemble de décisions sans solution (les littéraux sont copiés)
+     * L'ensemble vide signifie que la grille elle-même n'a pas de solution
+     */
+    public void add(int[] literals, int length) {
+        if (length == 0) {
+            refuted = true;
+            return;
+        }
+        if (length > maxLength) {
+            return;
+        }
+        int[] nogood = Arrays.copyOf(literals, length);
+        Arrays.sort(nogood);
+        boolean kept = false;
+        for (int literal : nogood) {
+            kept |= insert(literal * WAYS, nogood);
+        }
+        if (kept) {
+            stored.increment();
+        }
+    }
+
+    /**
+     * Range le nogood dans un paquet: entrée libre, sinon à la place du plus long s'il est
+     * plus long que lui. Retourne faux si le nogood n'y est pas rangé
+     */
+    private boolean insert(int base, int[] nogood) {
+        while (true) {
+            int victim = -1;
+            int[] victimNogood = null;
+            for (int i = 0; i < WAYS; i++) {
+                int[] current = slots.get(base + i);
+                if (current == null) {
+                    if (slots.compareAndSet(base + i, null, nogood)) {
+                        return true;
+                    }
+                    current = slots.get(base + i);
+                    if (current == null) {
+                        continue;
+                    }
+                }
+                if (Arrays.equals(current, nogood)) {
+                    return false;
+                }
+                int longest = victimNogood == null ? nogood.length : victimNogood.length;
+                if (current.length > longest) {
+                    victim = i;
+                    victimNogood = current;
+                }
+            }
+            if (victim < 0) {
+                return false;
+            }
+            if (slots.compareAndSet(base + victim, victimNogood, nogood)) {
+                evicted.increment();
+                return true;
+            }
+            // Un autre thread a modifié l'entrée entre-temps: le paquet est réexaminé
+        }
+    }
+
+    /**
+     * Nogood qui inclut la décision (row, col, value) et que la grille contient entièrement,
+     * ou null. A appeler juste après avoir placé value en (row, col)
+     * Le tableau retourné est partagé: ne pas le modifier
+     */
+    public int[] violatedBy(BinairoPosition position, int row, int col, int value) {
+        int base = literal(size, row, col, value) * WAYS;
+        for (int i = 0; i < WAYS; i++) {
+            int[] nogood = slots.get(base + i);
+            if (nogood != null && matches(position, nogood)) {
+                hits.increment();
+                return nogood;
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(BinairoPosition position, int[] nogood) {
+        for (int literal : nogood) {
+            int cell = literal >> 1;
+            if (position.getValue(cell / size, cell % size) != (literal & 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Vrai si un thread a prouvé que la grille n'a pas de solution
+     */
+    public boolean isRefuted() {
+        return refuted;
+    }
+
+    /**
+     * Nombre de nogoods enregistrés (rangés dans au moins un paquet)
+     */
+    public long getStored() {
+        return stored.sum();
+    }
+
+    /**
+     * Nombre d'entrées remplacées par un nogood plus court
+     */
+    public long getEvicted() {
+        return evicted.sum();
+    }
+
+    /**
+     * Nombre de décisions coupées par un nogood
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+}
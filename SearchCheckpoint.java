@@ -0,0 +1,223 @@
+import java.io.*;
+import java.nio.file.*;
+
+/**
+ * Point de reprise d'une recherche GameSearch: grille de départ, méthode, compteurs et
+ * pile des décisions en cours, pour reprendre une résolution ou une énumération interrompue
+ *
+ * Format (entiers en big-endian, DataOutputStream):
+ *   "BNCK", version (int), méthode (UTF), énumération (booléen), terminée (booléen),
+ *   profondeur de sondage SAC (int, à partir de la version 2), grille (UTF, format sur une ligne), nœuds (long), solutions (long), temps en ms (long),
+ *   solution trouvée (UTF, vide si aucune), nombre de niveaux (int), puis par niveau:
+ *   ligne et colonne (short), nombre de valeurs et prochaine valeur (octet), valeurs (2 octets)
+ *
+ * Les grilles intermédiaires ne sont pas stockées: elles sont reconstruites en rejouant
+ * les décisions depuis la grille de départ (et le sondage SAC des premiers niveaux)
+ */
+public final class SearchCheckpoint {
+    private static final int MAGIC = 0x424E434B; // "BNCK"
+    private static final int VERSION = 2;
+
+    private final String method;
+    private final boolean enumeration;
+    private final boolean finished;
+    private final int probingDepth;
+    private final BinairoPosition puzzle;
+    private final long nodes;
+    private final long solutions;
+    private final long timeMs;
+    private final BinairoPosition solution;
+    private final int[] rows;
+    private final int[] cols;
+    private final int[] counts;
+    private final int[] nexts;
+    private final int[] values;
+
+    SearchCheckpoint(String method, boolean enumeration, boolean finished, int probingDepth, BinairoPosition puzzle,
+                     long nodes, long solutions, long timeMs, BinairoPosition solution,
+                     int[] rows, int[] cols, int[] counts, int[] nexts, int[] values) {
+        this.method = method;
+        this.enumeration = enumeration;
+        this.finished = finished;
+        this.probingDepth = probingDepth;
+        this.puzzle = puzzle;
+        this.nodes = nodes;
+        this.solutions = solutions;
+        this.timeMs = timeMs;
+        this.solution = solution;
+        this.rows = rows;
+        this.cols = cols;
+        this.counts = counts;
+        this.nexts = nexts;
+        this.values = values;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Vrai pour une énumération des solutions, faux pour une résolution simple
+     */
+    public boolean isEnumeration() {
+        return enumeration;
+    }
+
+    /**
+     * Vrai si la recherche était terminée: il n'y a plus rien à explorer
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Profondeur de sondage de la méthode SAC (0 pour les autres méthodes)
+     */
+    public int getProbingDepth() {
+        return probingDepth;
+    }
+
+    public BinairoPosition getPuzzle() {
+        return new BinairoPosition(puzzle);
+    }
+
+    /**
+     * Nombre total de nœuds explorés, toutes sessions confondues
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getSolutions() {
+        return solutions;
+    }
+
+    /**
+     * Temps de recherche cumulé en millisecondes
+     */
+    public long getTimeMs() {
+        return timeMs;
+    }
+
+    /**
+     * Solution trouvée par une résolution terminée, ou null
+     */
+    public BinairoPosition getSolution() {
+        return solution == null ? null : new BinairoPosition(solution);
+    }
+
+    /**
+     * Nombre de niveaux de la pile des décisions
+     */
+    public int getLevels() {
+        return rows.length;
+    }
+
+    int getRow(int level) {
+        return rows[level];
+    }
+
+    int getCol(int level) {
+        return cols[level];
+    }
+
+    int getCount(int level) {
+        return counts[level];
+    }
+
+    int getNext(int level) {
+        return nexts[level];
+    }
+
+    int getValue(int level, int index) {
+        return values[2 * level + index];
+    }
+
+    /**
+     * Écrit le point de reprise dans un fichier temporaire puis le renomme, pour qu'une
+     * interruption pendant l'écriture laisse le point de reprise précédent intact
+     */
+    public void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp = parent.resolve(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(method);
+            out.writeBoolean(enumeration);
+            out.writeBoolean(finished);
+            out.writeInt(probingDepth);
+            out.writeUTF(puzzle.toLineString());
+            out.writeLong(nodes);
+            out.writeLong(solutions);
+            out.writeLong(timeMs);
+            out.writeUTF(solution == null ? "" : solution.toLineString());
+            out.writeInt(rows.length);
+            for (int level = 0; level < rows.length; level++) {
+                out.writeShort(rows[level]);
+                out.writeShort(cols[level]);
+                out.writeByte(counts[level]);
+                out.writeByte(nexts[level]);
+                out.writeByte(values[2 * level]);
+                out.writeByte(values[2 * level + 1]);
+            }
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public static SearchCheckpoint read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Ce fichier n'est pas un point de reprise Binairo");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Version de point de reprise non supportée: " + version);
+            }
+            String method = in.readUTF();
+            boolean enumeration = in.readBoolean();
+            boolean finished = in.readBoolean();
+            int probingDepth = in.readInt();
+            BinairoPosition puzzle = BinairoPosition.fromLineString(in.readUTF());
+            long nodes = in.readLong();
+            long solutions = in.readLong();
+            long timeMs = in.readLong();
+            String solutionLine = in.readUTF();
+            BinairoPosition solution = solutionLine.isEmpty() ? null : BinairoPosition.fromLineString(solutionLine);
+
+            int levels = in.readInt();
+            int size = puzzle.getSize();
+            if (levels < 0 || levels > size * size + 1) {
+                throw new IOException("Point de reprise corrompu (" + levels + " niveaux)");
+            }
+            int[] rows = new int[levels];
+            int[] cols = new int[levels];
+            int[] counts = new int[levels];
+            int[] nexts = new int[levels];
+            int[] values = new int[2 * levels];
+            for (int level = 0; level < levels; level++) {
+                rows[level] = in.readShort();
+                cols[level] = in.readShort();
+                counts[level] = in.readByte();
+                nexts[level] = in.readByte();
+                values[2 * level] = in.readByte();
+                values[2 * level + 1] = in.readByte();
+                if (rows[level] < 0 || rows[level] >= size || cols[level] < 0 || cols[level] >= size
+                        || counts[level] < 0 || counts[level] > 2 || nexts[level] < 0 || nexts[level] > counts[level]
+                        || (level < levels - 1 && nexts[level] == 0)) {
+                    throw new IOException("Point de reprise corrompu (niveau " + level + ")");
+                }
+            }
+            return new SearchCheckpoint(method, enumeration, finished, probingDepth, puzzle, nodes, solutions, timeMs,
+                solution, rows, cols, counts, nexts, values);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Point de reprise corrompu: " + e.getMessage(), e);
+        }
+    }
+}
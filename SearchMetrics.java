@@ -0,0 +1,312 @@
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Compteurs et histogrammes collectés pendant la recherche (voir GameSearch.setMetrics)
+ * Une même instance peut être partagée par plusieurs recherches, y compris sur
+ * plusieurs threads: tous les compteurs sont atomiques
+ *
+ * Exportable en JMX (registerMBean) et au format texte de Prometheus (toPrometheus)
+ */
+public class SearchMetrics implements SearchMetricsMBean {
+    // Phases chronométrées dans GameSearch
+    public static final int PHASE_VARIABLE_SELECTION = 0;
+    public static final int PHASE_VALUE_ORDERING = 1;
+    public static final int PHASE_VALIDITY_CHECK = 2;
+    public static final int PHASE_PROPAGATION = 3;
+    private static final String[] PHASE_NAMES = {
+        "variable_selection", "value_ordering", "validity_check", "propagation"
+    };
+
+    private final LongAdder solves = new LongAdder();
+    private final LongAdder solved = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder propagations = new LongAdder();
+    private final LongAdder wipeouts = new LongAdder();
+    private final LongAdder backtracks = new LongAdder();
+    private final AtomicLong maxDepth = new AtomicLong();
+    private final LongAdder[] phaseNanos = new LongAdder[PHASE_NAMES.length];
+
+    // Profondeur de chaque nœud exploré, et durée (ns) de chaque résolution
+    private final Histogram depthHistogram = new Histogram();
+    private final Histogram solveHistogram = new Histogram();
+
+    public SearchMetrics() {
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] = new LongAdder();
+        }
+    }
+
+    void recordNode(int depth) {
+        nodes.increment();
+        depthHistogram.record(depth);
+        long max = maxDepth.get();
+        while (depth > max && !maxDepth.compareAndSet(max, depth)) {
+            max = maxDepth.get();
+        }
+    }
+
+    void recordPropagation(boolean consistent) {
+        propagations.increment();
+        if (!consistent) {
+            wipeouts.increment();
+        }
+    }
+
+    void recordBacktrack() {
+        backtracks.increment();
+    }
+
+    void recordPhase(int phase, long nanos) {
+        phaseNanos[phase].add(nanos);
+    }
+
+    void recordSolve(long nanos, boolean success) {
+        solves.increment();
+        if (success) {
+            solved.increment();
+        }
+        solveHistogram.record(nanos);
+    }
+
+    @Override
+    public long getSolves() {
+        return solves.sum();
+    }
+
+    @Override
+    public long getSolved() {
+        return solved.sum();
+    }
+
+    @Override
+    public long getNodesExplored() {
+        return nodes.sum();
+    }
+
+    @Override
+    public long getPropagations() {
+        return propagations.sum();
+    }
+
+    @Override
+    public long getWipeouts() {
+        return wipeouts.sum();
+    }
+
+    @Override
+    public long getBacktracks() {
+        return backtracks.sum();
+    }
+
+    @Override
+    public long getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    @Override
+    public double getMeanDepth() {
+        long count = depthHistogram.getCount();
+        return count == 0 ? 0 : (double) depthHistogram.getSum() / count;
+    }
+
+    @Override
+    public double getVariableSelectionMillis() {
+        return phaseNanos[PHASE_VARIABLE_SELECTION].sum() / 1e6;
+    }
+
+    @Override
+    public double getValueOrderingMillis() {
+        return phaseNanos[PHASE_VALUE_ORDERING].sum() / 1e6;
+    }
+
+    @Override
+    public double getValidityCheckMillis() {
+        return phaseNanos[PHASE_VALIDITY_CHECK].sum() / 1e6;
+    }
+
+    @Override
+    public double getPropagationMillis() {
+        return phaseNanos[PHASE_PROPAGATION].sum() / 1e6;
+    }
+
+    @Override
+    public double getSearchMillis() {
+        return solveHistogram.getSum() / 1e6;
+    }
+
+    public Histogram getDepthHistogram() {
+        return depthHistogram;
+    }
+
+    public Histogram getSolveTimeHistogram() {
+        return solveHistogram;
+    }
+
+    @Override
+    public String getPrometheusText() {
+        return toPrometheus();
+    }
+
+    @Override
+    public void reset() {
+        solves.reset();
+        solved.reset();
+        nodes.reset();
+        propagations.reset();
+        wipeouts.reset();
+        backtracks.reset();
+        maxDepth.set(0);
+        for (LongAdder adder : phaseNanos) {
+            adder.reset();
+        }
+        depthHistogram.reset();
+        solveHistogram.reset();
+    }
+
+    /**
+     * Enregistre ces métriques dans le serveur JMX de la JVM
+     * sous le nom binairo:type=SearchMetrics,name=<name>
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("binairo:type=SearchMetrics,name=" + ObjectName.quote(name));
+        if (server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+        server.registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Export au format texte de Prometheus (exposition 0.0.4)
+     */
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+        appendCounter(sb, "binairo_search_solves_total", "Nombre de résolutions lancées", getSolves());
+        appendCounter(sb, "binairo_search_solved_total", "Nombre de résolutions réussies", getSolved());
+        appendCounter(sb, "binairo_search_nodes_total", "Nœuds explorés", getNodesExplored());
+        appendCounter(sb, "binairo_search_propagations_total", "Appels de propagation", getPropagations());
+        appendCounter(sb, "binairo_search_wipeouts_total", "Propagations ayant vidé un domaine", getWipeouts());
+        appendCounter(sb, "binairo_search_backtracks_total", "Retours arrière", getBacktracks());
+
+        sb.append("# HELP binairo_search_max_depth Profondeur maximale atteinte\n");
+        sb.append("# TYPE binairo_search_max_depth gauge\n");
+        sb.append("binairo_search_max_depth ").append(getMaxDepth()).append("\n");
+
+        sb.append("# HELP binairo_search_phase_seconds_total Temps passé par phase de la recherche\n");
+        sb.append("# TYPE binairo_search_phase_seconds_total counter\n");
+        for (int i = 0; i < PHASE_NAMES.length; i++) {
+            sb.append("binairo_search_phase_seconds_total{phase=\"").append(PHASE_NAMES[i]).append("\"} ")
+              .append(formatDouble(phaseNanos[i].sum() / 1e9)).append("\n");
+        }
+
+        depthHistogram.appendPrometheus(sb, "binairo_search_depth", "Profondeur des nœuds explorés", 1);
+        solveHistogram.appendPrometheus(sb, "binairo_search_solve_seconds", "Durée des résolutions", 1e9);
+        return sb.toString();
+    }
+
+    private static void appendCounter(StringBuilder sb, String name, String help, long value) {
+        sb.append("# HELP ").append(name).append(" ").append(help).append("\n");
+        sb.append("# TYPE ").append(name).append(" counter\n");
+        sb.append(name).append(" ").append(value).append("\n");
+    }
+
+    private static String formatDouble(double value) {
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+
+    /**
+     * Histogramme à seaux exponentiels (puissances de 2), sans verrou
+     * Le seau i compte les valeurs v telles que 2^(i-1) < v <= 2^i (le seau 0 contient v <= 1)
+     */
+    public static class Histogram {
+        private static final int BUCKETS = 64;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder sum = new LongAdder();
+        private final LongAdder count = new LongAdder();
+
+        public void record(long value) {
+            counts.incrementAndGet(bucketOf(value));
+            sum.add(value);
+            count.increment();
+        }
+
+        static int bucketOf(long value) {
+            if (value <= 1) return 0;
+            return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value - 1));
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getSum() {
+            return sum.sum();
+        }
+
+        public long getBucketCount(int bucket) {
+            return counts.get(bucket);
+        }
+
+        /**
+         * Borne supérieure approximative du percentile p (0-100)
+         */
+        public long percentile(double p) {
+            long total = getCount();
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(p / 100.0 * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return 1L << i;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(i, 0);
+            }
+            sum.reset();
+            count.reset();
+        }
+
+        /**
+         * Ajoute l'histogramme au format Prometheus; scale convertit l'unité
+         * enregistrée vers l'unité exportée (1e9 pour des ns exportées en secondes)
+         */
+        void appendPrometheus(StringBuilder sb, String name, String help, double scale) {
+            sb.append("# HELP ").append(name).append(" ").append(help).append("\n");
+            sb.append("# TYPE ").append(name).append(" histogram\n");
+
+            // Seuls les seaux entre le premier et le dernier non vides sont exportés
+            int first = -1;
+            int last = -1;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (counts.get(i) > 0) {
+                    if (first < 0) first = i;
+                    last = i;
+                }
+            }
+            long cumulative = 0;
+            for (int i = Math.max(first, 0); i <= last; i++) {
+                cumulative += counts.get(i);
+                String le = scale == 1 ? String.valueOf(1L << i) : String.valueOf((1L << i) / scale);
+                sb.append(name).append("_bucket{le=\"").append(le).append("\"} ").append(cumulative).append("\n");
+            }
+            sb.append(name).append("_bucket{le=\"+Inf\"} ").append(getCount()).append("\n");
+            sb.append(name).append("_sum ")
+              .append(scale == 1 ? String.valueOf(getSum()) : formatDouble(getSum() / scale)).append("\n");
+            sb.append(name).append("_count ").append(getCount()).append("\n");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Interface JMX des métriques de recherche (voir SearchMetrics)
+ * Les attributs apparaissent dans JConsole / VisualVM sous le domaine "binairo"
+ */
+public interface SearchMetricsMBean {
+    long getSolves();
+
+    long getSolved();
+
+    long getNodesExplored();
+
+    long getPropagations();
+
+    long getWipeouts();
+
+    long getBacktracks();
+
+    long getMaxDepth();
+
+    double getMeanDepth();
+
+    double getVariableSelectionMillis();
+
+    double getValueOrderingMillis();
+
+    double getValidityCheckMillis();
+
+    double getPropagationMillis();
+
+    double getSearchMillis();
+
+    String getPrometheusText();
+
+    void reset();
+}
@@ -0,0 +1,160 @@
+import java.io.PrintStream;
+
+/**
+ * Trace à faible coût des événements de la recherche (voir GameSearch.setTrace)
+ * Les événements sont codés dans un long et écrits dans un tampon circulaire
+ * préalloué: aucune allocation ni mise en forme de texte pendant la recherche,
+ * le décodage n'a lieu qu'au moment du dump
+ *
+ * Une trace n'est pas thread-safe: utiliser une instance par recherche
+ */
+public class SearchTrace {
+    // Types d'événements
+    public static final int DECISION = 1;
+    public static final int PROPAGATION = 2;
+    public static final int WIPEOUT = 3;
+    public static final int BACKTRACK = 4;
+    public static final int SOLUTION = 5;
+    public static final int LIMIT = 6;
+    private static final String[] TYPE_NAMES = {
+        "?", "DECISION", "PROPAGATION", "WIPEOUT", "BACKTRACK", "SOLUTION", "LIMIT"
+    };
+
+    // Disposition des champs dans un événement codé
+    private static final int TYPE_BITS = 4;
+    private static final int VALUE_SHIFT = 4;      // valeur + 1 (0 = vide/aucune), 2 bits
+    private static final int ROW_SHIFT = 6;        // 16 bits, 0xFFFF = aucune
+    private static final int COL_SHIFT = 22;       // 16 bits, 0xFFFF = aucune
+    private static final int DEPTH_SHIFT = 38;     // 24 bits
+    private static final long FIELD_MASK = 0xFFFF;
+    private static final long DEPTH_MASK = 0xFFFFFF;
+
+    // Propriétés système pour activer la trace sans modifier le code appelant
+    public static final String CAPACITY_PROPERTY = "binairo.trace";
+    public static final String DUMP_PROPERTY = "binairo.trace.dump";
+
+    private final long[] events;
+    private final long[] timestamps;
+    private final int mask;
+    private long count;
+    private final long origin;
+
+    private int autoDumpCount;
+    private PrintStream autoDumpOut;
+
+    /**
+     * Crée une trace gardant au moins capacity événements (arrondi à la puissance de 2 supérieure)
+     */
+    public SearchTrace(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.events = new long[size];
+        this.timestamps = new long[size];
+        this.mask = size - 1;
+        this.origin = System.nanoTime();
+    }
+
+    /**
+     * Trace configurée par -Dbinairo.trace=<capacité> (et -Dbinairo.trace.dump=<n>)
+     * Retourne null si la propriété n'est pas définie
+     */
+    public static SearchTrace fromSystemProperties() {
+        String capacity = System.getProperty(CAPACITY_PROPERTY);
+        if (capacity == null) {
+            return null;
+        }
+        try {
+            SearchTrace trace = new SearchTrace(Integer.parseInt(capacity.trim()));
+            trace.setAutoDump(Integer.getInteger(DUMP_PROPERTY, 50), System.err);
+            return trace;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Affiche automatiquement les count derniers événements lorsque la recherche
+     * échoue ou atteint une limite (count = 0 pour désactiver)
+     */
+    public void setAutoDump(int count, PrintStream out) {
+        this.autoDumpCount = count;
+        this.autoDumpOut = out;
+    }
+
+    public void record(int type, int depth, int row, int col, int value) {
+        int i = (int) (count & mask);
+        events[i] = encode(type, depth, row, col, value);
+        timestamps[i] = System.nanoTime();
+        count++;
+    }
+
+    static long encode(int type, int depth, int row, int col, int value) {
+        return (type & ((1 << TYPE_BITS) - 1))
+            | ((long) ((value + 1) & 3) << VALUE_SHIFT)
+            | ((row & FIELD_MASK) << ROW_SHIFT)
+            | ((col & FIELD_MASK) << COL_SHIFT)
+            | ((depth & DEPTH_MASK) << DEPTH_SHIFT);
+    }
+
+    /**
+     * Nombre total d'événements enregistrés (y compris ceux écrasés)
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Appelé par GameSearch à la fin d'une résolution sans solution
+     */
+    void onFailure(String method, boolean limitReached) {
+        if (autoDumpCount > 0 && autoDumpOut != null) {
+            autoDumpOut.println("=== Trace " + method + ": " +
+                (limitReached ? "limite atteinte" : "aucune solution") + " ===");
+            dump(autoDumpCount, autoDumpOut);
+        }
+    }
+
+    /**
+     * Affiche les n derniers événements, du plus ancien au plus récent
+     */
+    public void dump(int n, PrintStream out) {
+        long available = Math.min(count, events.length);
+        long first = count - Math.min(n, available);
+        for (long seq = first; seq < count; seq++) {
+            out.println(format(seq));
+        }
+        if (count > available) {
+            out.println("(" + (count - available) + " événements plus anciens écrasés)");
+        }
+    }
+
+    private String format(long seq) {
+        int i = (int) (seq & mask);
+        long event = events[i];
+        int type = (int) (event & ((1 << TYPE_BITS) - 1));
+        int value = (int) ((event >>> VALUE_SHIFT) & 3) - 1;
+        int row = (int) ((event >>> ROW_SHIFT) & FIELD_MASK);
+        int col = (int) ((event >>> COL_SHIFT) & FIELD_MASK);
+        int depth = (int) ((event >>> DEPTH_SHIFT) & DEPTH_MASK);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append('#').append(seq)
+          .append(" +").append((timestamps[i] - origin) / 1000).append("µs ")
+          .append(type < TYPE_NAMES.length ? TYPE_NAMES[type] : "?")
+          .append(" profondeur=").append(depth);
+        if (row != FIELD_MASK && col != FIELD_MASK) {
+            sb.append(" (").append(row).append(", ").append(col).append(")");
+            if (value >= 0) {
+                sb.append(" = ").append(value);
+            }
+        }
+        return sb.toString();
+    }
+}
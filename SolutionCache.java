@@ -0,0 +1,144 @@
+import java.util.*;
+
+/**
+ * Cache des solutions devant GameSearch
+ * La clé est la forme canonique compacte de la grille: les grilles identiques à
+ * une symétrie près (miroirs, transposition, échange 0/1) partagent la même entrée
+ * La taille est bornée, les entrées les moins récemment utilisées sont évincées (LRU)
+ *
+ * Thread-safe: les accès sont synchronisés, la résolution se fait hors verrou
+ */
+public class SolutionCache {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    private final LinkedHashMap<GridKey, GridKey> solutions;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public SolutionCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SolutionCache(int capacity) {
+        this.capacity = capacity;
+        // accessOrder = true: l'itération va de l'entrée la moins récemment utilisée à la plus récente
+        this.solutions = new LinkedHashMap<GridKey, GridKey>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<GridKey, GridKey> eldest) {
+                if (size() > SolutionCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Retourne la solution connue de la grille (dans l'orientation de la grille), ou null
+     */
+    public BinairoPosition get(BinairoPosition puzzle) {
+        Canonical canonical = canonicalize(puzzle);
+        GridKey solution;
+        synchronized (this) {
+            solution = solutions.get(canonical.key);
+            if (solution == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+        }
+        return solution.toPosition().transform(BinairoPosition.inverseSymmetry(canonical.symmetry));
+    }
+
+    /**
+     * Enregistre une solution complète et valide de la grille (ignorée sinon, par exemple
+     * une solution lue dans un fichier qui ne respecte pas les cases données de la grille)
+     */
+    public void put(BinairoPosition puzzle, BinairoPosition solution) {
+        if (solution == null || !solution.isSolution() || !matchesGivens(puzzle, solution)) {
+            return;
+        }
+        Canonical canonical = canonicalize(puzzle);
+        GridKey solutionKey = solution.toKey(canonical.symmetry);
+        synchronized (this) {
+            solutions.put(canonical.key, solutionKey);
+        }
+    }
+
+    /**
+     * Vrai si la solution a la taille de la grille et reprend chacune de ses cases remplies
+     */
+    private static boolean matchesGivens(BinairoPosition puzzle, BinairoPosition solution) {
+        int size = puzzle.getSize();
+        if (solution.getSize() != size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (!puzzle.isEmpty(i, j) && puzzle.getValue(i, j) != solution.getValue(i, j)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retourne la solution depuis le cache, ou résout avec la méthode donnée
+     * et mémorise le résultat. Retourne null si aucune solution n'est trouvée
+     */
+    public BinairoPosition solve(BinairoPosition puzzle, String method) {
+        BinairoPosition cached = get(puzzle);
+        if (cached != null) {
+            return cached;
+        }
+        BinairoPosition solution = BinairoSolver.getDefault().solve(puzzle, method).getSolution();
+        put(puzzle, solution);
+        return solution;
+    }
+
+    public synchronized int size() {
+        return solutions.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized void clear() {
+        solutions.clear();
+    }
+
+    /**
+     * Forme canonique de la grille et la symétrie qui la produit
+     */
+    static Canonical canonicalize(BinairoPosition puzzle) {
+        int symmetry = puzzle.canonicalSymmetry();
+        return new Canonical(puzzle.toKey(symmetry), symmetry);
+    }
+
+    static class Canonical {
+        final GridKey key;
+        final int symmetry;
+
+        Canonical(GridKey key, int symmetry) {
+            this.key = key;
+            this.symmetry = symmetry;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Table de transposition des sous-problèmes sans solution: ensemble borné de hachages
+ * de Zobrist (BinairoPosition.getZobristHash) de grilles déjà prouvées insolubles
+ *
+ * La table est un tableau de clés découpé en paquets de WAYS entrées: une clé n'est
+ * cherchée que dans son paquet, et quand le paquet est plein elle remplace une de ses
+ * entrées (choisie par la clé elle-même). Une clé peut donc être oubliée, jamais
+ * inventée: seule une collision de hachage sur 64 bits donnerait un faux échec
+ *
+ * Sans verrou: les entrées sont lues et écrites une à une (AtomicLongArray), plusieurs
+ * moteurs peuvent partager une même table
+ */
+public final class TranspositionTable {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int WAYS = 4;
+    // Clé réservée aux entrées libres; une vraie clé nulle est remplacée par REMAPPED
+    private static final long FREE = 0L;
+    private static final long REMAPPED = 0x9E3779B97F4A7C15L;
+
+    private final AtomicLongArray keys;
+    private final int mask;
+
+    /**
+     * @param capacity nombre maximal de clés, arrondi à la puissance de 2 supérieure
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacité invalide: " + capacity);
+        }
+        int entries = Math.max(WAYS, Integer.highestOneBit(capacity - 1) << 1);
+        this.keys = new AtomicLongArray(entries);
+        this.mask = entries - 1;
+    }
+
+    public int getCapacity() {
+        return keys.length();
+    }
+
+    /**
+     * Vrai si la grille de ce hachage a été enregistrée comme insoluble (et pas encore évincée)
+     */
+    public boolean contains(long hash) {
+        long key = hash == FREE ? REMAPPED : hash;
+        int bucket = bucket(key);
+        for (int i = 0; i < WAYS; i++) {
+            if (keys.get(bucket + i) == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Enregistre la grille de ce hachage comme insoluble
+     * Prend une entrée libre du paquet, sinon remplace une entrée existante
+     */
+    public void add(long hash) {
+        long key = hash == FREE ? REMAPPED : hash;
+        int bucket = bucket(key);
+        for (int i = 0; i < WAYS; i++) {
+            long current = keys.get(bucket + i);
+            if (current == key) {
+                return;
+            }
+            if (current == FREE && keys.compareAndSet(bucket + i, FREE, key)) {
+                return;
+            }
+        }
+        // Les bits de poids fort de la clé n'ont pas servi à choisir le paquet
+        keys.set(bucket + ((int) (key >>> 62) & (WAYS - 1)), key);
+    }
+
+    /**
+     * Vide la table (les recherches en cours qui la partagent perdent simplement ses entrées)
+     */
+    public void clear() {
+        for (int i = 0; i < keys.length(); i++) {
+            keys.set(i, FREE);
+        }
+    }
+
+    private int bucket(long key) {
+        return (int) (key ^ (key >>> 32)) & mask & ~(WAYS - 1);
+    }
+}
@@ -0,0 +1,182 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.io.Closeable;
+
+/**
+ * Service de validation partagé entre plusieurs clients (serveur HTTP)
+ *
+ * Les demandes identiques en cours sont regroupées: une grille déjà en attente n'est
+ * calculée qu'une fois et tous les demandeurs reçoivent le même résultat
+ * Les demandes sont ensuite traitées par lots par un thread unique, avec une seule
+ * passe BinairoBitboard par lot. Les grilles plus grandes que 64x64 sont validées
+ * une par une avec getViolationMap()
+ */
+public class ValidationService implements Closeable {
+    public static final int DEFAULT_MAX_BATCH = 256;
+
+    private final int maxBatch;
+    private final ConcurrentHashMap<GridKey, CompletableFuture<ViolationMap>> inFlight = new ConcurrentHashMap<>();
+    private final BlockingQueue<GridKey> queue = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder validated = new LongAdder();
+
+    public ValidationService() {
+        this(DEFAULT_MAX_BATCH);
+    }
+
+    public ValidationService(int maxBatch) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("La taille de lot doit être positive");
+        }
+        this.maxBatch = maxBatch;
+        this.dispatcher = new Thread(this::dispatch, "binairo-validation");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Demande la validation de la grille; le résultat correspond à l'état de la grille
+     * au moment de l'appel, même si elle est modifiée ensuite
+     */
+    public CompletableFuture<ViolationMap> submit(BinairoPosition position) {
+        if (closed) {
+            throw new IllegalStateException("Service de validation arrêté");
+        }
+        requests.increment();
+        GridKey key = position.toKey();
+        CompletableFuture<ViolationMap> created = new CompletableFuture<>();
+        CompletableFuture<ViolationMap> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        queue.add(key);
+        // Arrêt concurrent: le thread de traitement a pu vider la file avant l'ajout
+        if (closed && inFlight.remove(key, created)) {
+            created.completeExceptionally(new IllegalStateException("Service de validation arrêté"));
+        }
+        return created;
+    }
+
+    /**
+     * Valide la grille et attend le résultat
+     */
+    public ViolationMap validate(BinairoPosition position) {
+        try {
+            return submit(position).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Validation interrompue", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        }
+    }
+
+    private void dispatch() {
+        List<GridKey> batch = new ArrayList<>(maxBatch);
+        try {
+            while (!closed) {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatch - 1);
+                process(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Arrêt du service
+        }
+        batch.addAll(queue);
+        for (GridKey key : batch) {
+            CompletableFuture<ViolationMap> future = inFlight.remove(key);
+            if (future != null) {
+                future.completeExceptionally(new IllegalStateException("Service de validation arrêté"));
+            }
+        }
+    }
+
+    private void process(List<GridKey> batch) {
+        batches.increment();
+        validated.add(batch.size());
+
+        List<GridKey> keys = new ArrayList<>(batch.size());
+        List<BinairoPosition> grids = new ArrayList<>(batch.size());
+        for (GridKey key : batch) {
+            if (BinairoBitboard.supports(key.getSize())) {
+                keys.add(key);
+                grids.add(key.toPosition());
+            } else {
+                complete(key, () -> key.toPosition().getViolationMap());
+            }
+        }
+        if (grids.isEmpty()) {
+            return;
+        }
+
+        ViolationMap[] maps;
+        try {
+            maps = BinairoBitboard.violations(grids);
+        } catch (RuntimeException e) {
+            for (GridKey key : keys) {
+                complete(key, () -> { throw e; });
+            }
+            return;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            ViolationMap map = maps[i];
+            complete(keys.get(i), () -> map);
+        }
+    }
+
+    /**
+     * Retire la demande des demandes en cours puis transmet le résultat
+     * Une demande identique arrivée après le retrait est recalculée
+     */
+    private void complete(GridKey key, Callable<ViolationMap> computation) {
+        CompletableFuture<ViolationMap> future = inFlight.remove(key);
+        if (future == null) {
+            return;
+        }
+        try {
+            future.complete(computation.call());
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Nombre de demandes reçues
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Nombre de demandes servies par une validation déjà en cours
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * Nombre de grilles réellement validées
+     */
+    public long getValidated() {
+        return validated.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        dispatcher.interrupt();
+    }
+}
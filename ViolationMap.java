@@ -0,0 +1,87 @@
+import java.util.*;
+
+/**
+ * Règles violées par chaque case d'une grille
+ * Le masque d'une case combine RULE1, RULE2 et RULE3, avec la même sémantique que
+ * BinairoPosition.getViolations(row, col)
+ * Calculé en une passe par BinairoPosition.getViolationMap(), ou par lots par BinairoBitboard
+ */
+public final class ViolationMap {
+    public static final int RULE1 = 1;  // trois chiffres identiques côte à côte
+    public static final int RULE2 = 2;  // déséquilibre dans la ligne ou colonne
+    public static final int RULE3 = 4;  // ligne ou colonne identique à une autre
+
+    public static final String RULE1_MESSAGE = "Règle 1 violée: Trois chiffres identiques côte à côte";
+    public static final String RULE2_MESSAGE = "Règle 2 violée: Déséquilibre dans la ligne ou colonne";
+    public static final String RULE3_MESSAGE = "Règle 3 violée: Ligne ou colonne identique à une autre";
+
+    private final int size;
+    private final byte[] masks;
+
+    ViolationMap(int size, byte[] masks) {
+        this.size = size;
+        this.masks = masks;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Combinaison de RULE1, RULE2 et RULE3 pour la case (0 si aucune règle n'est violée)
+     */
+    public int getMask(int row, int col) {
+        return masks[row * size + col];
+    }
+
+    public boolean hasViolation(int row, int col) {
+        return masks[row * size + col] != 0;
+    }
+
+    /**
+     * Vrai si aucune case ne viole de règle (équivaut à BinairoPosition.isValid())
+     */
+    public boolean isValid() {
+        for (byte mask : masks) {
+            if (mask != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Vrai si au moins une case viole la règle (RULE1, RULE2 ou RULE3)
+     * Équivaut à !checkRule1(), !checkRule2() ou !checkRule3() sur la grille
+     */
+    public boolean violates(int rule) {
+        for (byte mask : masks) {
+            if ((mask & rule) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Nombre de cases qui violent au moins une règle
+     */
+    public int countViolations() {
+        int count = 0;
+        for (byte mask : masks) {
+            if (mask != 0) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Messages des règles violées par la case, dans le format de getViolations
+     */
+    public List<String> getMessages(int row, int col) {
+        return messages(getMask(row, col));
+    }
+
+    public static List<String> messages(int mask) {
+        List<String> messages = new ArrayList<>();
+        if ((mask & RULE1) != 0) messages.add(RULE1_MESSAGE);
+        if ((mask & RULE2) != 0) messages.add(RULE2_MESSAGE);
+        if ((mask & RULE3) != 0) messages.add(RULE3_MESSAGE);
+        return messages;
+    }
+}